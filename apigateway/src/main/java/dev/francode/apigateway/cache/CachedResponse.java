@@ -0,0 +1,32 @@
+package dev.francode.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+
+// A captured backend response. Fresh until freshUntil; after that it can still be revalidated by ETag
+record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag,
+                      long storedAtNanos, long freshUntilNanos) {
+
+    boolean isFresh(long nowNanos) {
+        return nowNanos - freshUntilNanos < 0;
+    }
+
+    long ageSeconds(long nowNanos) {
+        return Duration.ofNanos(nowNanos - storedAtNanos).toSeconds();
+    }
+
+    // Same content, confirmed unchanged by the backend
+    CachedResponse refreshed(long nowNanos, Duration ttl) {
+        return new CachedResponse(status, headers, body, etag, nowNanos, nowNanos + ttl.toNanos());
+    }
+
+    // Approximate heap footprint, used to bound the cache by bytes
+    int weight(String key) {
+        int headerBytes = headers.entrySet().stream()
+                .mapToInt(header -> header.getKey().length() + header.getValue().stream().mapToInt(String::length).sum())
+                .sum();
+        return 128 + key.length() * 2 + headerBytes * 2 + body.length;
+    }
+}
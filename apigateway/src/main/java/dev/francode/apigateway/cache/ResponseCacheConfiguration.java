@@ -0,0 +1,52 @@
+package dev.francode.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+@ConditionalOnProperty(prefix = "gateway.response-cache", name = "enabled", matchIfMissing = true)
+public class ResponseCacheConfiguration {
+
+    static final String CACHE_NAME = "gateway.responses";
+
+    @Bean
+    public Cache<String, CachedResponse> gatewayResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        Cache<String, CachedResponse> cache = Caffeine.newBuilder()
+                // Bounded by bytes rather than entries: one page of products weighs far more than a count
+                .maximumWeight(properties.maxSize().toBytes())
+                .weigher((String key, CachedResponse response) -> response.weight(key))
+                // Kept past its TTL for the stale-retention window so it can be revalidated by ETag
+                .expireAfter(Expiry.writing((String key, CachedResponse response) ->
+                        Duration.ofNanos(Math.max(0, response.freshUntilNanos() - System.nanoTime()))
+                                .plus(properties.staleRetention())))
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size, ...
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("gateway.response.cache.weight", cache,
+                        monitored -> monitored.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Approximate memory held by cached responses")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return cache;
+    }
+
+    @Bean
+    public ResponseCacheFilter responseCacheFilter(ResponseCacheProperties properties,
+                                                   Cache<String, CachedResponse> gatewayResponseCache,
+                                                   MeterRegistry meterRegistry) {
+        return new ResponseCacheFilter(properties, gatewayResponseCache, meterRegistry);
+    }
+}
@@ -0,0 +1,433 @@
+package dev.francode.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Caches successful GET responses in memory, keyed on path, query and the negotiated representation.
+// - Per-path TTLs; unmatched paths are not cached.
+// - One entry per media type (JSON, CBOR, Smile) and content coding (gzip or identity). Accept-Encoding is
+//   normalized before it reaches the backend, so compressed bodies pass through and are cached as they are.
+// - ETag/If-None-Match: clients get 304 from the gateway, and expired entries are revalidated with the backend.
+// - Identical misses in flight are coalesced: one backend call, the other requests wait for its result.
+// - Successful writes through the gateway drop the entries their invalidation rule names, e.g. the written product
+//   and the lists, not the other products; loads of those entries already in flight are served but not stored.
+// Runs before NettyWriteResponseFilter so it sees the backend body before it is written to the client.
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final String GZIP = "gzip";
+
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.DATE, HttpHeaders.AGE, CACHE_STATUS_HEADER);
+    private static final Set<HttpMethod> WRITE_METHODS = Set.of(
+            HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final ResponseCacheProperties properties;
+    private final Cache<String, CachedResponse> cache;
+    private final List<TtlRule> rules;
+    private final List<InvalidationRule> invalidationRules;
+    private final List<PathPattern> readOnlyPosts;
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    // In-flight loads of entries a write dropped after they started: served, but not stored
+    private final Set<Sinks.One<CachedResponse>> superseded = ConcurrentHashMap.newKeySet();
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, Cache<String, CachedResponse> cache,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        this.rules = properties.rules().stream()
+                .map(rule -> new TtlRule(parser.parse(rule.pattern()), rule.ttl()))
+                .toList();
+        this.invalidationRules = properties.invalidateOnWrite().stream()
+                .map(rule -> new InvalidationRule(parser.parse(rule.pattern()), rule.evict()))
+                .toList();
+        this.readOnlyPosts = properties.readOnlyPosts().stream()
+                .map(parser::parse)
+                .toList();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        PathContainer path = request.getPath().pathWithinApplication();
+
+        if (HttpMethod.POST.equals(request.getMethod())
+                && readOnlyPosts.stream().anyMatch(pattern -> pattern.matches(path))) {
+            return chain.filter(exchange);
+        }
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            return chain.filter(exchange).then(Mono.fromRunnable(() -> invalidateAfterWrite(exchange, path)));
+        }
+        Duration ttl = HttpMethod.GET.equals(request.getMethod()) ? ttlFor(path) : null;
+        MediaType mediaType = ttl == null ? null : negotiatedType(request);
+        if (mediaType == null) {
+            return chain.filter(exchange);
+        }
+
+        boolean gzip = acceptsGzip(request);
+        String key = key(request, mediaType, gzip);
+        long now = System.nanoTime();
+        boolean noCache = request.getHeaders().getCacheControl() != null
+                && request.getHeaders().getCacheControl().contains("no-cache");
+        CachedResponse cached = noCache ? null : cache.getIfPresent(key);
+        if (cached != null && cached.isFresh(now)) {
+            return write(exchange.getResponse(), request, cached, "HIT");
+        }
+        return load(exchange, chain, key, ttl, cached, mediaType, gzip);
+    }
+
+    // One backend call per key at a time; requests arriving meanwhile wait for its outcome
+    private Mono<Void> load(ServerWebExchange exchange, GatewayFilterChain chain, String key, Duration ttl,
+                            CachedResponse stale, MediaType mediaType, boolean gzip) {
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+        if (leader != null) {
+            return leader.asMono()
+                    .timeout(properties.coalesceTimeout())
+                    .map(Optional::of)
+                    .onErrorReturn(Optional.empty())
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(result -> result.isPresent()
+                            // Nothing reusable (error, uncacheable response): go to the backend on our own
+                            ? write(exchange.getResponse(), exchange.getRequest(), result.get(), "COALESCED")
+                            : chain.filter(exchange));
+        }
+
+        // The gateway answers the client's conditional headers itself; the backend only sees ours
+        ServerHttpRequest forwarded = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                    // Exactly the representation this entry holds
+                    headers.setAccept(List.of(mediaType));
+                    if (gzip) {
+                        headers.set(HttpHeaders.ACCEPT_ENCODING, GZIP);
+                    } else {
+                        headers.remove(HttpHeaders.ACCEPT_ENCODING);
+                    }
+                    if (stale != null) {
+                        headers.setIfNoneMatch(stale.etag());
+                    }
+                })
+                .build();
+        CapturingResponse response = new CapturingResponse(exchange, key, ttl, stale, sink, mediaType, gzip);
+        return chain.filter(exchange.mutate().request(forwarded).response(response).build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, sink);
+                    superseded.remove(sink);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, ServerHttpRequest request, CachedResponse cached, String outcome) {
+        return response.writeWith(prepare(response, request, cached, outcome));
+    }
+
+    // Sets status and headers for serving a cached response and returns its body (none for a 304)
+    private Flux<DataBuffer> prepare(ServerHttpResponse response, ServerHttpRequest request, CachedResponse cached,
+                                     String outcome) {
+        count(outcome);
+        HttpHeaders headers = response.getHeaders();
+        headers.clear();
+        headers.putAll(cached.headers());
+        headers.setETag(cached.etag());
+        headers.set(CACHE_STATUS_HEADER, outcome);
+        headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(System.nanoTime())));
+        if (matches(request.getHeaders().getIfNoneMatch(), cached.etag())) {
+            count("not_modified");
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            return Flux.empty();
+        }
+        response.setStatusCode(cached.status());
+        headers.setContentLength(cached.body().length);
+        return Flux.just(response.bufferFactory().wrap(cached.body()));
+    }
+
+    private void invalidateAfterWrite(ServerWebExchange exchange, PathContainer path) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status == null || !status.is2xxSuccessful()) {
+            return;
+        }
+        for (InvalidationRule rule : invalidationRules) {
+            PathPattern.PathMatchInfo match = rule.pattern().matchAndExtract(path);
+            if (match == null) {
+                continue;
+            }
+            List<PathPattern> evict = rule.evict().stream()
+                    .map(pattern -> expand(pattern, match.getUriVariables()))
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .toList();
+            // In-flight loads first: one that stores after this point is removed below
+            inFlight.forEach((key, sink) -> {
+                if (matchesAny(evict, key)) {
+                    superseded.add(sink);
+                }
+            });
+            cache.asMap().keySet().removeIf(key -> matchesAny(evict, key));
+            return;
+        }
+    }
+
+    private static boolean matchesAny(List<PathPattern> patterns, String key) {
+        PathContainer path = PathContainer.parsePath(pathOf(key));
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Replaces each {name} of the write's captured variables with its value
+    private static String expand(String pattern, Map<String, String> variables) {
+        String expanded = pattern;
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            expanded = expanded.replace("{" + variable.getKey() + "}", variable.getValue());
+        }
+        return expanded;
+    }
+
+    private Duration ttlFor(PathContainer path) {
+        for (TtlRule rule : rules) {
+            if (rule.pattern().matches(path)) {
+                return rule.ttl();
+            }
+        }
+        return null;
+    }
+
+    // The first cached media type that every Accept entry allows; null (go straight through) when there is none
+    private MediaType negotiatedType(ServerHttpRequest request) {
+        List<MediaType> accept = request.getHeaders().getAccept();
+        for (MediaType mediaType : properties.mediaTypes()) {
+            if (accept.stream().allMatch(range -> range.includes(mediaType))) {
+                return mediaType;
+            }
+        }
+        return null;
+    }
+
+    // gzip listed (or *) without q=0; anything else gets the identity entry
+    private static boolean acceptsGzip(ServerHttpRequest request) {
+        for (String value : request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.trim().split(";");
+                String name = parts[0].trim();
+                if ((name.equalsIgnoreCase(GZIP) || name.equals("*")) && !hasZeroQuality(parts)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasZeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) == 0;
+                } catch (NumberFormatException ex) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCacheable(HttpStatusCode status, HttpHeaders headers, MediaType mediaType, boolean gzip) {
+        MediaType contentType = headers.getContentType();
+        String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        String cacheControl = headers.getCacheControl();
+        return status.value() == HttpStatus.OK.value()
+                && contentType != null && mediaType.isCompatibleWith(contentType)
+                && (contentEncoding == null || (gzip && contentEncoding.equalsIgnoreCase(GZIP)))
+                && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && (cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private")));
+    }
+
+    // Weak comparison, as If-None-Match requires
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch) {
+            if (candidate.equals("*") || (candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // path[?query]#type;coding - a fragment never reaches the server, so '#' cannot be part of the request
+    private static String key(ServerHttpRequest request, MediaType mediaType, boolean gzip) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getPath().pathWithinApplication().value();
+        String variant = "#" + mediaType + ";" + (gzip ? GZIP : "identity");
+        return query == null ? path + variant : path + "?" + query + variant;
+    }
+
+    private static String pathOf(String key) {
+        int query = key.indexOf('?');
+        return key.substring(0, query < 0 ? key.indexOf('#') : query);
+    }
+
+    private void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, name -> Counter.builder("gateway.response.cache.requests")
+                        .description("Cacheable GET requests by how they were answered")
+                        .tag("outcome", name.toLowerCase(Locale.ROOT))
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private record TtlRule(PathPattern pattern, Duration ttl) {
+    }
+
+    private record InvalidationRule(PathPattern pattern, List<String> evict) {
+    }
+
+    // Captures the backend response on its way to the client and stores it when cacheable
+    private class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final Duration ttl;
+        private final CachedResponse stale;
+        private final Sinks.One<CachedResponse> sink;
+        private final MediaType mediaType;
+        private final boolean gzip;
+
+        CapturingResponse(ServerWebExchange exchange, String key, Duration ttl, CachedResponse stale,
+                          Sinks.One<CachedResponse> sink, MediaType mediaType, boolean gzip) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.ttl = ttl;
+            this.stale = stale;
+            this.sink = sink;
+            this.mediaType = mediaType;
+            this.gzip = gzip;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (stale != null && status != null && status.value() == HttpStatus.NOT_MODIFIED.value()) {
+                // Backend confirmed the stale copy: extend it and serve it
+                CachedResponse refreshed = stale.refreshed(System.nanoTime(), ttl);
+                store(refreshed);
+                return Flux.from(body).doOnNext(DataBufferUtils::release)
+                        .then(Mono.defer(() -> write(getDelegate(), exchange.getRequest(), refreshed, "REVALIDATED")));
+            }
+            if (status == null || !isCacheable(status, getHeaders(), mediaType, gzip)) {
+                count("bypass");
+                sink.tryEmitEmpty();
+                return super.writeWith(body);
+            }
+
+            // Hold the body back while it fits in an entry, so the miss itself gets an ETag and can be answered
+            // with 304. Past the entry limit, flush what was held and stream the rest through uncached.
+            int maxEntry = (int) properties.maxEntrySize().toBytes();
+            ByteArrayOutputStream held = new ByteArrayOutputStream();
+            boolean[] streaming = {getHeaders().getContentLength() > maxEntry};
+            if (streaming[0]) {
+                count("too_large");
+                sink.tryEmitEmpty();
+                getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+            }
+            Flux<DataBuffer> output = Flux.from(body)
+                    .concatMap(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        if (!streaming[0] && held.size() + bytes.length <= maxEntry) {
+                            held.writeBytes(bytes);
+                            return Flux.<DataBuffer>empty();
+                        }
+                        if (!streaming[0]) {
+                            streaming[0] = true;
+                            count("too_large");
+                            sink.tryEmitEmpty();
+                            getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                            return Flux.just(bufferFactory().wrap(held.toByteArray()), bufferFactory().wrap(bytes));
+                        }
+                        return Flux.just(bufferFactory().wrap(bytes));
+                    })
+                    .concatWith(Flux.defer(() -> {
+                        if (streaming[0]) {
+                            return Flux.empty();
+                        }
+                        CachedResponse captured = capture(status, held.toByteArray());
+                        store(captured);
+                        return prepare(getDelegate(), exchange.getRequest(), captured, "MISS");
+                    }));
+            return getDelegate().writeWith(output);
+        }
+
+        private CachedResponse capture(HttpStatusCode status, byte[] body) {
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (UNCACHED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    headers.put(name, List.copyOf(values));
+                }
+            });
+            String etag = getHeaders().getETag();
+            if (etag == null) {
+                etag = "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+            }
+            long now = System.nanoTime();
+            return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body, etag, now, now + ttl.toNanos());
+        }
+
+        private void store(CachedResponse response) {
+            if (!superseded.contains(sink) && response.body().length <= properties.maxEntrySize().toBytes()) {
+                cache.put(key, response);
+            }
+            sink.tryEmitValue(response);
+        }
+    }
+}
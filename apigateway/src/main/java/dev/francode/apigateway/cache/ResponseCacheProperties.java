@@ -0,0 +1,41 @@
+package dev.francode.apigateway.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+// Settings of the gateway response cache (gateway.response-cache.*)
+@ConfigurationProperties("gateway.response-cache")
+public record ResponseCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        // Total size of the cached bodies and headers
+        @DefaultValue("64MB") DataSize maxSize,
+        // Larger responses are passed through without being cached
+        @DefaultValue("1MB") DataSize maxEntrySize,
+        // How long an expired entry is kept to revalidate it with If-None-Match instead of refetching it
+        @DefaultValue("5m") Duration staleRetention,
+        // How long a request waits for an identical in-flight request before going to the backend itself
+        @DefaultValue("10s") Duration coalesceTimeout,
+        // GET paths that are cached, first matching pattern wins; unmatched paths are never cached
+        @DefaultValue List<Rule> rules,
+        // What a successful POST/PUT/PATCH/DELETE drops, by the first rule whose pattern matches its path; writes
+        // matching no rule drop nothing
+        @DefaultValue List<Invalidation> invalidateOnWrite,
+        // POSTs to these paths only read (e.g. lookups with the ids in the body) and invalidate nothing
+        @DefaultValue List<String> readOnlyPosts,
+        // Representations that are cached, each in its own entry; requests whose Accept allows several get the first.
+        // Other Accept values (e.g. NDJSON streams) are passed through uncached.
+        @DefaultValue({"application/json", "application/cbor", "application/x-jackson-smile"}) List<MediaType> mediaTypes) {
+
+    public record Rule(String pattern, Duration ttl) {
+    }
+
+    // Cached entries whose path matches one of the evict patterns are dropped; a {variable} captured by the write
+    // pattern stands for its value there, e.g. pattern /api/products/{id} with evict /api/products/{id}
+    public record Invalidation(String pattern, @DefaultValue List<String> evict) {
+    }
+}
@@ -0,0 +1,71 @@
+package dev.francode.apigateway.discovery;
+
+import com.netflix.discovery.BackupRegistry;
+import com.netflix.discovery.converters.wrappers.CodecWrapper;
+import com.netflix.discovery.converters.wrappers.CodecWrappers;
+import com.netflix.discovery.shared.Applications;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// What the Eureka client falls back to when its first registry fetch fails: the registry as last fetched (see
+// RegistrySnapshotWriter), so load-balanced calls have instances to try while the registry is down or restarting.
+// The client creates this class by name, hence the file is handed over through a static field (see
+// RegistrySnapshotConfiguration).
+public class RegistrySnapshotBackup implements BackupRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrySnapshotBackup.class);
+    private static final CodecWrapper CODEC = CodecWrappers.getCodec(CodecWrappers.JacksonJson.class);
+
+    private static volatile Path file;
+
+    static void useFile(Path snapshotFile) {
+        file = snapshotFile;
+    }
+
+    @Override
+    public Applications fetchRegistry() {
+        Path snapshotFile = file;
+        if (snapshotFile == null) {
+            return null;
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(snapshotFile))) {
+            Applications applications = CODEC.decode(in, Applications.class);
+            // Makes the first fetch that succeeds a full one instead of a delta on top of this
+            applications.setVersion(-1L);
+            log.warn("Registry unavailable, starting from the snapshot at {} ({} applications)", snapshotFile,
+                    applications.getRegisteredApplications().size());
+            return applications;
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Cannot read the registry snapshot at {}", snapshotFile, ex);
+            return null;
+        }
+    }
+
+    // Only the local region is kept
+    @Override
+    public Applications fetchRegistry(String[] includeRemoteRegions) {
+        return fetchRegistry();
+    }
+
+    static void write(Path snapshotFile, Applications applications) throws IOException {
+        Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+        Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+            CODEC.encode(applications, out);
+        }
+        // A reader sees the previous snapshot or this one, never a partial file
+        Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
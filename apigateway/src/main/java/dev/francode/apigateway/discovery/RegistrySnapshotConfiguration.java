@@ -0,0 +1,36 @@
+package dev.francode.apigateway.discovery;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.netflix.eureka.EurekaClientConfigBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RegistrySnapshotProperties.class)
+@ConditionalOnProperty(name = "gateway.registry-snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class RegistrySnapshotConfiguration {
+
+    // The Eureka client reads its config bean before the first fetch, so the snapshot is in place by then
+    @Bean
+    public static BeanPostProcessor registrySnapshotBackupPostProcessor(
+            ObjectProvider<RegistrySnapshotProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof EurekaClientConfigBean config) {
+                    RegistrySnapshotBackup.useFile(properties.getObject().file());
+                    config.setBackupRegistryImpl(RegistrySnapshotBackup.class.getName());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public RegistrySnapshotWriter registrySnapshotWriter(RegistrySnapshotProperties properties) {
+        return new RegistrySnapshotWriter(properties.file());
+    }
+}
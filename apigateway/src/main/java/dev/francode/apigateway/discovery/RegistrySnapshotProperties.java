@@ -0,0 +1,14 @@
+package dev.francode.apigateway.discovery;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+// Last-known registry view (gateway.registry-snapshot.*)
+@ConfigurationProperties("gateway.registry-snapshot")
+public record RegistrySnapshotProperties(
+        @DefaultValue("true") boolean enabled,
+        // Gzipped JSON, rewritten when the fetched instances change
+        @DefaultValue("snapshots/apigateway-registry.json.gz") Path file) {
+}
@@ -0,0 +1,59 @@
+package dev.francode.apigateway.discovery;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Saves the registry after each fetch (HeartbeatEvent) that changed an instance. An empty registry is not saved:
+// the last one with instances is worth more on a cold start than nothing.
+public class RegistrySnapshotWriter implements ApplicationListener<HeartbeatEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrySnapshotWriter.class);
+
+    private final Path file;
+    private Set<String> written = Set.of();
+
+    public RegistrySnapshotWriter(Path file) {
+        this.file = file;
+    }
+
+    // Published by the Eureka client after every registry fetch, with itself as the source
+    @Override
+    public synchronized void onApplicationEvent(HeartbeatEvent event) {
+        if (!(event.getSource() instanceof EurekaClient eurekaClient)) {
+            return;
+        }
+        Applications applications = eurekaClient.getApplications();
+        Set<String> instances = instances(applications);
+        if (instances.isEmpty() || instances.equals(written)) {
+            return;
+        }
+        try {
+            RegistrySnapshotBackup.write(file, applications);
+            written = instances;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Cannot write the registry snapshot to {}", file, ex);
+        }
+    }
+
+    // lastDirtyTimestamp moves with every change an instance reports, renewals leave it alone
+    private static Set<String> instances(Applications applications) {
+        Set<String> instances = new TreeSet<>();
+        for (Application application : applications.getRegisteredApplications()) {
+            for (InstanceInfo instance : application.getInstances()) {
+                instances.add(instance.getId() + "@" + instance.getLastDirtyTimestamp() + ":" + instance.getStatus());
+            }
+        }
+        return instances;
+    }
+}
@@ -0,0 +1,35 @@
+package dev.francode.apigateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket that limits hedges to a fraction of requests: every request deposits a fraction of a token,
+// a hedge takes a whole one. When the whole backend is slow the bucket drains and hedging stops.
+class HedgeBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    HedgeBudget(double ratio, int burst) {
+        this.deposit = Math.round(ratio * TOKEN);
+        this.capacity = burst * TOKEN;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    void deposit() {
+        balance.getAndUpdate(current -> Math.min(capacity, current + deposit));
+    }
+
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+}
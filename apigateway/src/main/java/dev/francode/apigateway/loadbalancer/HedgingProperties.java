@@ -0,0 +1,23 @@
+package dev.francode.apigateway.loadbalancer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Settings of hedged GET/HEAD requests on load-balanced routes (gateway.hedging.*)
+@ConfigurationProperties("gateway.hedging")
+public record HedgingProperties(
+        @DefaultValue("true") boolean enabled,
+        // A second instance is tried once the first has not answered within this percentile of recent latencies
+        @DefaultValue("0.95") double percentile,
+        // Bounds of that deadline; max-delay also applies until min-samples latencies have been seen
+        @DefaultValue("10ms") Duration minDelay,
+        @DefaultValue("500ms") Duration maxDelay,
+        @DefaultValue("20") int minSamples,
+        // Number of recent latencies per service the percentile is taken over
+        @DefaultValue("256") int windowSize,
+        // Hedges allowed per request on average, plus a burst; keeps a slow backend from receiving double the load
+        @DefaultValue("0.1") double budgetRatio,
+        @DefaultValue("10") int budgetBurst) {
+}
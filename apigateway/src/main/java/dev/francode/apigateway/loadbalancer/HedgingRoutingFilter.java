@@ -0,0 +1,351 @@
+package dev.francode.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.Kind;
+import io.micrometer.observation.transport.SenderContext;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter.filterRequest;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_OBSERVATION_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+// Runs right after the load balancer picked an instance.
+// - Every load-balanced request feeds that instance's latency and outstanding-request statistics.
+// - GET/HEAD are routed here: if the instance has not answered by the service's latency percentile, the same
+//   request goes to a second instance and the first response to arrive wins; the other one is cancelled.
+//   A connection failure on the first instance sends the second request at once (this replaces Retry).
+//   Each attempt is its own observation (gateway.backend.attempt), so traces show every backend call under the
+//   gateway's proxy span and carry the attempt's span id to the backend.
+// The winning backend response is left in the exchange like NettyRoutingFilter does, so NettyWriteResponseFilter
+// and everything before it (response cache included) handle it as usual.
+public class HedgingRoutingFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+
+    private static final Set<HttpMethod> HEDGED_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD);
+
+    private final HedgingProperties properties;
+    private final InstanceStatsRegistry statsRegistry;
+    private final LoadBalancerClientFactory clientFactory;
+    private final HttpClient httpClient;
+    private final HttpClientProperties httpClientProperties;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final Map<String, ServiceState> services = new ConcurrentHashMap<>();
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+    private volatile List<HttpHeadersFilter> headersFilters;
+
+    public HedgingRoutingFilter(HedgingProperties properties, InstanceStatsRegistry statsRegistry,
+                                LoadBalancerClientFactory clientFactory, HttpClient httpClient,
+                                HttpClientProperties httpClientProperties,
+                                ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.properties = properties;
+        this.statsRegistry = statsRegistry;
+        this.clientFactory = clientFactory;
+        this.httpClient = httpClient;
+        this.httpClientProperties = httpClientProperties;
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (chosen == null || !chosen.hasServer() || url == null || isAlreadyRouted(exchange)) {
+            return chain.filter(exchange);
+        }
+        ServiceInstance primary = chosen.getServer();
+        if (!isHedgeable(exchange, url)) {
+            InstanceStats.Call call = statsRegistry.get(primary).begin();
+            exchange.getResponse().beforeCommit(() -> Mono.fromRunnable(call::responded));
+            return chain.filter(exchange)
+                    .doOnError(error -> call.failed())
+                    .doFinally(signal -> call.close());
+        }
+        return hedge(exchange, chain, primary, url);
+    }
+
+    private boolean isHedgeable(ServerWebExchange exchange, URI url) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        return properties.enabled()
+                && HEDGED_METHODS.contains(exchange.getRequest().getMethod())
+                && ("http".equalsIgnoreCase(url.getScheme()) || "https".equalsIgnoreCase(url.getScheme()))
+                && !headers.containsKey(HttpHeaders.UPGRADE)
+                && headers.getContentLength() <= 0;
+    }
+
+    private Mono<Void> hedge(ServerWebExchange exchange, GatewayFilterChain chain, ServiceInstance primary, URI url) {
+        ServiceState service = services.computeIfAbsent(primary.getServiceId(), id -> new ServiceState(
+                new LatencyWindow(properties.windowSize()),
+                new HedgeBudget(properties.budgetRatio(), properties.budgetBurst())));
+        service.budget().deposit();
+        HttpHeaders headers = filterRequest(getHeadersFilters(), exchange);
+
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+        Mono<Attempt> first = send(exchange, primary, url, headers, service, AttemptKind.PRIMARY)
+                .doOnError(error -> primaryFailed.tryEmitEmpty());
+        Mono<Attempt> second = Mono.firstWithSignal(
+                        Mono.delay(service.window().deadline(properties)).thenReturn(false),
+                        primaryFailed.asMono().thenReturn(true))
+                .flatMap(failover -> {
+                    if (!failover && !service.budget().tryWithdraw()) {
+                        count("denied");
+                        return Mono.empty();
+                    }
+                    count(failover ? "failover" : "sent");
+                    return chooseOther(exchange, primary)
+                            .flatMap(instance -> send(exchange, instance, withInstance(url, instance), headers, service,
+                                    failover ? AttemptKind.FAILOVER : AttemptKind.HEDGE));
+                });
+
+        Mono<Attempt> winner = Mono.firstWithValue(first, second)
+                .doOnDiscard(Attempt.class, Attempt::discard)
+                // Both attempts failed: report the first instance's error, as routing it alone would have
+                .onErrorMap(NoSuchElementException.class, HedgingRoutingFilter::firstCause);
+        Duration responseTimeout = responseTimeout(exchange.getAttribute(GATEWAY_ROUTE_ATTR));
+        if (responseTimeout != null) {
+            winner = winner.timeout(responseTimeout, Mono.error(() -> new TimeoutException(
+                            "Response took longer than timeout: " + responseTimeout)))
+                    .onErrorMap(TimeoutException.class,
+                            error -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, error.getMessage(), error));
+        }
+        return winner.flatMap(attempt -> {
+            if (attempt.hedge()) {
+                count("hedge_won");
+            }
+            attempt.apply(exchange, getHeadersFilters());
+            return chain.filter(exchange).doFinally(signal -> attempt.finish());
+        });
+    }
+
+    private Mono<Attempt> send(ServerWebExchange exchange, ServiceInstance instance, URI url, HttpHeaders headers,
+                               ServiceState service, AttemptKind kind) {
+        return Mono.defer(() -> {
+            InstanceStats.Call call = statsRegistry.get(instance).begin();
+            DefaultHttpHeaders nettyHeaders = new DefaultHttpHeaders();
+            headers.forEach(nettyHeaders::set);
+            // Started after the headers are copied: it replaces the propagated trace context with its own
+            Observation observation = observeAttempt(exchange, instance, url, kind, nettyHeaders).start();
+            boolean preserveHost = exchange.getAttributeOrDefault(PRESERVE_HOST_HEADER_ATTRIBUTE, false);
+            String host = exchange.getRequest().getHeaders().getFirst(HttpHeaders.HOST);
+            return httpClient
+                    .headers(outgoing -> {
+                        outgoing.add(nettyHeaders);
+                        outgoing.remove(HttpHeaders.HOST);
+                        if (preserveHost && host != null) {
+                            outgoing.add(HttpHeaders.HOST, host);
+                        }
+                    })
+                    .request(io.netty.handler.codec.http.HttpMethod.valueOf(exchange.getRequest().getMethod().name()))
+                    .uri(url.toASCIIString())
+                    .responseConnection((response, connection) -> {
+                        observation.lowCardinalityKeyValue("status", String.valueOf(response.status().code()));
+                        return Mono.just(new Attempt(instance, url, response, connection, call, kind, observation));
+                    })
+                    .next()
+                    .doOnNext(attempt -> service.window().record(call.responded()))
+                    .doOnError(error -> {
+                        call.failed();
+                        observation.error(error);
+                        observation.stop();
+                    })
+                    .doOnCancel(() -> {
+                        call.close();
+                        observation.lowCardinalityKeyValue("outcome", "cancelled").stop();
+                    });
+        });
+    }
+
+    private Observation observeAttempt(ServerWebExchange exchange, ServiceInstance instance, URI url,
+                                       AttemptKind kind, DefaultHttpHeaders carrier) {
+        SenderContext<DefaultHttpHeaders> context = new SenderContext<>(
+                (headers, name, value) -> headers.set(name, value), Kind.CLIENT);
+        context.setCarrier(carrier);
+        context.setRemoteServiceName(instance.getServiceId());
+        context.setRemoteServiceAddress(instance.getUri().toString());
+        String attempt = kind.name().toLowerCase(Locale.ROOT);
+        return Observation.createNotStarted("gateway.backend.attempt", () -> context, observationRegistry)
+                .contextualName(exchange.getRequest().getMethod().name() + " " + attempt)
+                // Child of the gateway's proxy (http client) span; hedge and failover attempts are its siblings
+                .parentObservation(exchange.getAttribute(GATEWAY_OBSERVATION_ATTR))
+                .lowCardinalityKeyValue("attempt", attempt)
+                .lowCardinalityKeyValue("status", "none")
+                .lowCardinalityKeyValue("outcome", "completed")
+                .highCardinalityKeyValue("instance", InstanceStatsRegistry.key(instance))
+                .highCardinalityKeyValue("http.url", url.toString());
+    }
+
+    private Mono<ServiceInstance> chooseOther(ServerWebExchange exchange, ServiceInstance primary) {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = clientFactory.getInstance(primary.getServiceId());
+        if (loadBalancer == null) {
+            return Mono.empty();
+        }
+        Request<RequestDataContext> request = new DefaultRequest<>(
+                new RequestDataContext(new RequestData(exchange.getRequest(), exchange.getAttributes())));
+        Mono<Response<ServiceInstance>> choice = loadBalancer instanceof PeakEwmaLoadBalancer peakEwma
+                ? peakEwma.choose(request, primary)
+                : Mono.from(loadBalancer.choose(request));
+        String primaryKey = InstanceStatsRegistry.key(primary);
+        return choice.filter(Response::hasServer)
+                .map(Response::getServer)
+                .filter(instance -> !InstanceStatsRegistry.key(instance).equals(primaryKey));
+    }
+
+    private static URI withInstance(URI url, ServiceInstance instance) {
+        return UriComponentsBuilder.fromUri(url)
+                .scheme(instance.isSecure() ? "https" : "http")
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private Duration responseTimeout(Route route) {
+        if (route != null && route.getMetadata().get(RESPONSE_TIMEOUT_ATTR) instanceof Number millis) {
+            return millis.longValue() < 0 ? null : Duration.ofMillis(millis.longValue());
+        }
+        return httpClientProperties.getResponseTimeout();
+    }
+
+    private static Throwable firstCause(NoSuchElementException error) {
+        for (Throwable suppressed : error.getSuppressed()) {
+            List<Throwable> causes = Exceptions.unwrapMultiple(suppressed);
+            if (!causes.isEmpty()) {
+                return causes.get(0);
+            }
+        }
+        return error.getCause() != null ? error.getCause() : error;
+    }
+
+    private List<HttpHeadersFilter> getHeadersFilters() {
+        if (headersFilters == null) {
+            headersFilters = headersFiltersProvider.getIfAvailable(List::of);
+        }
+        return headersFilters;
+    }
+
+    private void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, name -> Counter.builder("gateway.hedging.requests")
+                        .description("Hedged GET/HEAD requests: second attempts sent, denied by the budget, won, failovers")
+                        .tag("outcome", name.toLowerCase(Locale.ROOT))
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private record ServiceState(LatencyWindow window, HedgeBudget budget) {
+    }
+
+    private enum AttemptKind {
+        PRIMARY, HEDGE, FAILOVER
+    }
+
+    // A backend that has sent its response headers; its body is still unread on the connection
+    private record Attempt(ServiceInstance instance, URI url, HttpClientResponse response, Connection connection,
+                           InstanceStats.Call call, AttemptKind kind, Observation observation) {
+
+        boolean hedge() {
+            return kind != AttemptKind.PRIMARY;
+        }
+
+        // Leaves the response where NettyWriteResponseFilter expects it, as NettyRoutingFilter would
+        void apply(ServerWebExchange exchange, List<HttpHeadersFilter> headersFilters) {
+            setAlreadyRouted(exchange);
+            exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, url);
+            exchange.getAttributes().put(CLIENT_RESPONSE_ATTR, response);
+            exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, connection);
+
+            HttpHeaders headers = new HttpHeaders();
+            response.responseHeaders().forEach(entry -> headers.add(entry.getKey(), entry.getValue()));
+            String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+            if (StringUtils.hasLength(contentType)) {
+                exchange.getAttributes().put(ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, contentType);
+            }
+
+            ServerHttpResponse serverResponse = exchange.getResponse();
+            serverResponse.setStatusCode(HttpStatusCode.valueOf(response.status().code()));
+            // Filtered after the status is set, so header filters can see it
+            HttpHeaders filtered = HttpHeadersFilter.filter(headersFilters, headers, exchange, HttpHeadersFilter.Type.RESPONSE);
+            if (!filtered.containsKey(HttpHeaders.TRANSFER_ENCODING) && filtered.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+                serverResponse.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+            }
+            exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, filtered.keySet());
+            serverResponse.getHeaders().addAll(filtered);
+        }
+
+        // The winner, once its body has been relayed
+        void finish() {
+            call.close();
+            observation.stop();
+        }
+
+        // The loser, or the winner when the exchange is cancelled before it is applied
+        void discard() {
+            call.close();
+            connection.dispose();
+            observation.lowCardinalityKeyValue("outcome", "discarded").stop();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package dev.francode.apigateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Peak-sensitive moving average of one instance's latency, plus its outstanding requests.
+// A sample above the average replaces it at once; lower samples pull it down gradually, and the average also
+// decays while the instance is idle so it gets probed again after a slow spell.
+public class InstanceStats {
+
+    private final double decayNanos;
+    private final long penaltyNanos;
+    private final AtomicInteger pending = new AtomicInteger();
+    private double averageNanos;
+    private long stampNanos = System.nanoTime();
+
+    InstanceStats(long decayNanos, long penaltyNanos) {
+        this.decayNanos = decayNanos;
+        this.penaltyNanos = penaltyNanos;
+    }
+
+    Call begin() {
+        pending.incrementAndGet();
+        return new Call();
+    }
+
+    // Expected wait for a new request: average latency times the requests it would queue behind
+    double cost() {
+        int outstanding = pending.get();
+        double average;
+        synchronized (this) {
+            average = decay(0);
+        }
+        if (average == 0 && outstanding > 0) {
+            // Never measured but already busy: assume the worst until a response arrives
+            return penaltyNanos + outstanding;
+        }
+        return average * (outstanding + 1);
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    synchronized double averageNanos() {
+        return averageNanos;
+    }
+
+    private synchronized void observe(long latencyNanos) {
+        decay(latencyNanos);
+    }
+
+    private double decay(long sampleNanos) {
+        long now = System.nanoTime();
+        long elapsed = Math.max(now - stampNanos, 0);
+        stampNanos = now;
+        if (sampleNanos > averageNanos) {
+            averageNanos = sampleNanos;
+        } else {
+            double weight = Math.exp(-elapsed / decayNanos);
+            averageNanos = averageNanos * weight + sampleNanos * (1 - weight);
+        }
+        return averageNanos;
+    }
+
+    // One request to the instance. Counts as outstanding until closed; its latency is recorded once.
+    public final class Call {
+
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean observed = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        // Response headers received
+        public long responded() {
+            long elapsed = System.nanoTime() - startNanos;
+            if (observed.compareAndSet(false, true)) {
+                observe(elapsed);
+            }
+            return elapsed;
+        }
+
+        public void failed() {
+            if (observed.compareAndSet(false, true)) {
+                observe(Math.max(System.nanoTime() - startNanos, penaltyNanos));
+            }
+            close();
+        }
+
+        // Closed without an answer (abandoned for a hedge, client gone): it was at least this slow
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                responded();
+                pending.decrementAndGet();
+            }
+        }
+    }
+}
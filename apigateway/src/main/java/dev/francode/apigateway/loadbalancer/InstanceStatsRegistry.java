@@ -0,0 +1,33 @@
+package dev.francode.apigateway.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+
+// Latency statistics per service instance, shared by the load balancers and the routing filter.
+// Instances that stop receiving traffic (deregistered, scaled down) are forgotten after a while.
+public class InstanceStatsRegistry {
+
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(10);
+
+    private final Cache<String, InstanceStats> stats = Caffeine.newBuilder()
+            .expireAfterAccess(IDLE_EXPIRY)
+            .build();
+    private final long decayNanos;
+    private final long penaltyNanos;
+
+    public InstanceStatsRegistry(LoadBalancingProperties properties) {
+        this.decayNanos = properties.decayTime().toNanos();
+        this.penaltyNanos = properties.failurePenalty().toNanos();
+    }
+
+    public InstanceStats get(ServiceInstance instance) {
+        return stats.get(key(instance), key -> new InstanceStats(decayNanos, penaltyNanos));
+    }
+
+    static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,49 @@
+package dev.francode.apigateway.loadbalancer;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+// Recent response latencies of one service, and the hedging deadline derived from them.
+// The percentile is recomputed at most every REFRESH_NANOS, not per request.
+class LatencyWindow {
+
+    private static final long REFRESH_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final long[] samples;
+    private int next;
+    private int count;
+    private volatile long deadlineNanos = -1;
+    private volatile long computedAtNanos;
+
+    LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    synchronized void record(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    Duration deadline(HedgingProperties properties) {
+        long now = System.nanoTime();
+        if (deadlineNanos < 0 || now - computedAtNanos > REFRESH_NANOS) {
+            deadlineNanos = compute(properties);
+            computedAtNanos = now;
+        }
+        return Duration.ofNanos(deadlineNanos);
+    }
+
+    private long compute(HedgingProperties properties) {
+        long[] sorted;
+        synchronized (this) {
+            if (count < properties.minSamples()) {
+                return properties.maxDelay().toNanos();
+            }
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+        long percentile = sorted[Math.min(sorted.length - 1, (int) Math.ceil(properties.percentile() * sorted.length) - 1)];
+        return Math.clamp(percentile, properties.minDelay().toNanos(), properties.maxDelay().toNanos());
+    }
+}
@@ -0,0 +1,40 @@
+package dev.francode.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties({LoadBalancingProperties.class, HedgingProperties.class})
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancingConfiguration {
+
+    @Bean
+    public InstanceStatsRegistry instanceStatsRegistry(LoadBalancingProperties properties) {
+        return new InstanceStatsRegistry(properties);
+    }
+
+    @Bean
+    public HedgingRoutingFilter hedgingRoutingFilter(HedgingProperties properties,
+                                                     InstanceStatsRegistry instanceStatsRegistry,
+                                                     LoadBalancerClientFactory clientFactory,
+                                                     HttpClient httpClient,
+                                                     HttpClientProperties httpClientProperties,
+                                                     ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                                     MeterRegistry meterRegistry,
+                                                     ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new HedgingRoutingFilter(properties, instanceStatsRegistry, clientFactory, httpClient,
+                httpClientProperties, headersFilters, meterRegistry,
+                observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+}
@@ -0,0 +1,16 @@
+package dev.francode.apigateway.loadbalancer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Settings of the latency-aware load balancer (gateway.load-balancer.*)
+@ConfigurationProperties("gateway.load-balancer")
+public record LoadBalancingProperties(
+        // Time constant of the latency average: older samples lose weight at this pace, so a recovered
+        // instance wins traffic back within a few multiples of it
+        @DefaultValue("10s") Duration decayTime,
+        // Latency charged to an instance for a failed call (connection refused, reset, ...)
+        @DefaultValue("2s") Duration failurePenalty) {
+}
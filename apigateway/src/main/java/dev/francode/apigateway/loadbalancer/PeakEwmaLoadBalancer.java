@@ -0,0 +1,64 @@
+package dev.francode.apigateway.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Power of two choices: picks two instances at random and sends the request to the one with the lower
+// expected wait (latency average times outstanding requests). A slow or stalled instance quickly loses
+// traffic, while the random pairing keeps one fast instance from being flooded by everyone at once.
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> instanceListSupplier;
+    private final String serviceId;
+    private final InstanceStatsRegistry statsRegistry;
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> instanceListSupplier, String serviceId,
+                                InstanceStatsRegistry statsRegistry) {
+        this.instanceListSupplier = instanceListSupplier;
+        this.serviceId = serviceId;
+        this.statsRegistry = statsRegistry;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        return choose(request, null);
+    }
+
+    // Same choice, leaving out one instance (the one a hedged request is already waiting on)
+    public Mono<Response<ServiceInstance>> choose(Request<?> request, ServiceInstance excluded) {
+        ServiceInstanceListSupplier supplier = instanceListSupplier.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> select(instances, excluded));
+    }
+
+    Response<ServiceInstance> select(List<ServiceInstance> instances, ServiceInstance excluded) {
+        List<ServiceInstance> candidates = excluded == null ? instances : instances.stream()
+                .filter(instance -> !InstanceStatsRegistry.key(instance).equals(InstanceStatsRegistry.key(excluded)))
+                .toList();
+        if (candidates.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(statsRegistry.get(b).cost() < statsRegistry.get(a).cost() ? b : a);
+    }
+}
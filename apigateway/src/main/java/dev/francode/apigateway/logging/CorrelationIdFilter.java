@@ -0,0 +1,55 @@
+package dev.francode.apigateway.logging;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Gives every request a correlation id: the client's X-Correlation-Id when it is short and plain enough to log
+// as is, a new random one otherwise. It is forwarded to the backend, echoed on the response and kept in the
+// Reactor context, from where CorrelationIdThreadLocalAccessor puts it in the MDC of each log line.
+// A web filter rather than a gateway filter, so 429/503 answers and actuator calls carry it too.
+public class CorrelationIdFilter implements WebFilter, Ordered {
+
+    public static final String HEADER = "X-Correlation-Id";
+    public static final String CONTEXT_KEY = "correlationId";
+
+    private static final int MAX_LENGTH = 64;
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String incoming = exchange.getRequest().getHeaders().getFirst(HEADER);
+        String correlationId = isUsable(incoming) ? incoming : HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong());
+        // Set last, over the copy the backend echoes back
+        exchange.getResponse().beforeCommit(() -> {
+            exchange.getResponse().getHeaders().set(HEADER, correlationId);
+            return Mono.empty();
+        });
+        ServerWebExchange forwarded = correlationId.equals(incoming) ? exchange : exchange.mutate()
+                .request(request -> request.headers(headers -> headers.set(HEADER, correlationId)))
+                .build();
+        return chain.filter(forwarded).contextWrite(context -> context.put(CONTEXT_KEY, correlationId));
+    }
+
+    private static boolean isUsable(String id) {
+        if (id == null || id.isEmpty() || id.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (!(Character.isLetterOrDigit(c) && c < 128) && c != '-' && c != '_' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,30 @@
+package dev.francode.apigateway.logging;
+
+import io.micrometer.context.ThreadLocalAccessor;
+import org.slf4j.MDC;
+
+// Copies the correlation id from the Reactor context into the MDC of whichever Netty or scheduler thread runs
+// the request (spring.reactor.context-propagation=auto); registered through
+// META-INF/services/io.micrometer.context.ThreadLocalAccessor
+public class CorrelationIdThreadLocalAccessor implements ThreadLocalAccessor<String> {
+
+    @Override
+    public Object key() {
+        return CorrelationIdFilter.CONTEXT_KEY;
+    }
+
+    @Override
+    public String getValue() {
+        return MDC.get(CorrelationIdFilter.CONTEXT_KEY);
+    }
+
+    @Override
+    public void setValue(String value) {
+        MDC.put(CorrelationIdFilter.CONTEXT_KEY, value);
+    }
+
+    @Override
+    public void setValue() {
+        MDC.remove(CorrelationIdFilter.CONTEXT_KEY);
+    }
+}
@@ -0,0 +1,14 @@
+package dev.francode.apigateway.logging;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// JSON output and the async appender are set up in logback-spring.xml
+@Configuration
+public class LoggingConfiguration {
+
+    @Bean
+    public CorrelationIdFilter correlationIdFilter() {
+        return new CorrelationIdFilter();
+    }
+}
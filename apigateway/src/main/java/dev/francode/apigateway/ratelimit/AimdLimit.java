@@ -0,0 +1,62 @@
+package dev.francode.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Adaptive cap on concurrent requests (additive increase, multiplicative decrease).
+// While the backend answers quickly and the cap is actually being used, it grows by one per response;
+// a slow, failed or overloaded response cuts it by the backoff ratio, so the gateway backs off as soon as
+// the backend starts queueing instead of piling more requests onto it.
+class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Written under the lock, read without it on the admission path
+    private volatile double limit;
+
+    AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long timeoutNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = timeoutNanos;
+        this.limit = initialLimit;
+    }
+
+    // Takes a slot if one is free; the caller must call release exactly once for each successful acquire
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    // overloaded: the backend failed or signalled overload; null when the outcome says nothing (client went away)
+    void release(long latencyNanos, Boolean overloaded) {
+        int outstanding = inFlight.getAndDecrement();
+        if (overloaded == null) {
+            return;
+        }
+        synchronized (this) {
+            if (overloaded || latencyNanos > timeoutNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (outstanding * 2 >= limit) {
+                // Only grow when the current cap is being used; an idle route says nothing about capacity
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,43 @@
+package dev.francode.apigateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Set;
+
+// Identifies the client a request is charged to: its API key when it sends one of the configured keys, otherwise
+// its address. An unknown key counts as no key, or a client could send a new one with every request and never
+// run out of tokens. The limiter adds the route, so every client gets a separate bucket per route.
+public class ClientKeyResolver implements KeyResolver {
+
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final RemoteAddressResolver remoteAddressResolver;
+
+    public ClientKeyResolver(RateLimitProperties properties) {
+        this.apiKeyHeader = properties.apiKeyHeader();
+        this.apiKeys = Set.copyOf(properties.apiKeys());
+        this.remoteAddressResolver = properties.trustedProxies() > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(properties.trustedProxies())
+                : new RemoteAddressResolver() {
+                };
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        String apiKey = exchange.getRequest().getHeaders().getFirst(apiKeyHeader);
+        if (StringUtils.hasText(apiKey) && apiKeys.contains(apiKey.trim())) {
+            return Mono.just("key:" + apiKey.trim());
+        }
+        InetSocketAddress address = remoteAddressResolver.resolve(exchange);
+        if (address == null || address.getAddress() == null) {
+            return Mono.empty();
+        }
+        return Mono.just("ip:" + address.getAddress().getHostAddress());
+    }
+}
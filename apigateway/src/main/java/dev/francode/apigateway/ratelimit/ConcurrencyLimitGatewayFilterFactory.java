@@ -0,0 +1,174 @@
+package dev.francode.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ConcurrencyLimit route filter: admits at most an adaptive number of requests to the route at once and answers
+// the rest with 503 and Retry-After right away, before they queue up in the backend. See AimdLimit.
+public class ConcurrencyLimitGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ConcurrencyLimitGatewayFilterFactory.Config> {
+
+    // Backend answers that mean it is overloaded, not that the request was wrong
+    private static final Set<Integer> OVERLOAD_STATUSES = Set.of(429, 502, 503, 504);
+
+    private final MeterRegistry meterRegistry;
+    // Current limit per route; replaced when routes are refreshed, gauges read whatever is current
+    private final Map<String, AimdLimit> limits = new ConcurrentHashMap<>();
+    private final Map<String, Counter> decisions = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        AimdLimit limit = new AimdLimit(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+                config.getBackoffRatio(), config.getTimeout().toNanos());
+        if (limits.put(routeId, limit) == null) {
+            registerGauges(routeId);
+        }
+        String retryAfter = Long.toString(Math.max(1, config.getRetryAfter().toSeconds()));
+
+        return (exchange, chain) -> {
+            ServerHttpResponse response = exchange.getResponse();
+            if (!limit.tryAcquire()) {
+                count(routeId, "rejected");
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+                return response.setComplete();
+            }
+            count(routeId, "accepted");
+
+            // Latency is taken when the response starts, so long streamed bodies do not read as a slow backend
+            long start = System.nanoTime();
+            AtomicLong committedAt = new AtomicLong();
+            response.beforeCommit(() -> Mono.fromRunnable(() -> committedAt.compareAndSet(0, System.nanoTime())));
+            return chain.filter(exchange).doFinally(signal -> {
+                long end = committedAt.get() != 0 ? committedAt.get() : System.nanoTime();
+                limit.release(end - start, overloaded(signal, response.getStatusCode()));
+            });
+        };
+    }
+
+    private static Boolean overloaded(SignalType signal, HttpStatusCode status) {
+        if (signal == SignalType.CANCEL) {
+            return null;
+        }
+        return signal == SignalType.ON_ERROR || (status != null && OVERLOAD_STATUSES.contains(status.value()));
+    }
+
+    private void registerGauges(String routeId) {
+        Gauge.builder("gateway.concurrency.limit", limits, current -> current.get(routeId).getLimit())
+                .description("Current adaptive concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", limits, current -> current.get(routeId).getInFlight())
+                .description("Requests currently admitted by the concurrency limiter")
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+
+    private void count(String routeId, String outcome) {
+        decisions.computeIfAbsent(routeId + "|" + outcome, name -> Counter.builder("gateway.concurrency.requests")
+                        .description("Concurrency limiter decisions per route")
+                        .tag("route", routeId)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        // Factor the limit is multiplied by on a slow or failed response
+        private double backoffRatio = 0.9;
+        // Responses slower than this count as a sign of overload
+        private Duration timeout = Duration.ofSeconds(1);
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public Config setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public Config setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public Config setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public Config setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public Config setTimeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public Config setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package dev.francode.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.constraints.Min;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Token-bucket RateLimiter for RequestRateLimiter that keeps its buckets in this gateway's memory, so no Redis
+// is needed. Each gateway instance enforces the rate on its own: with N instances a client can get up to
+// N times the configured rate, which is acceptable for shielding the backend from a single noisy client.
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+    private final Cache<String, Bucket> buckets;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> decisions = new ConcurrentHashMap<>();
+
+    public LocalRateLimiter(RateLimitProperties properties, ConfigurationService configurationService,
+                            MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(properties.idleExpiry())
+                .build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, getConfig().get(RouteDefinitionRouteLocator.DEFAULT_FILTERS));
+        if (config == null) {
+            throw new IllegalArgumentException("No " + CONFIGURATION_PROPERTY_NAME + " configuration found for route " + routeId);
+        }
+        Bucket bucket = buckets.get(routeId + "|" + id, key -> new Bucket(config.getBurstCapacity()));
+        Decision decision = bucket.tryConsume(config.getRequestedTokens(), config.getReplenishRate(),
+                config.getBurstCapacity());
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(REMAINING_HEADER, Long.toString((long) decision.remaining()));
+        headers.put(REPLENISH_RATE_HEADER, Integer.toString(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, Integer.toString(config.getBurstCapacity()));
+        headers.put(REQUESTED_TOKENS_HEADER, Integer.toString(config.getRequestedTokens()));
+        if (!decision.allowed()) {
+            headers.put(HttpHeaders.RETRY_AFTER, Long.toString((long) Math.ceil(decision.retryAfterSeconds())));
+        }
+        count(routeId, decision.allowed() ? "allowed" : "denied");
+        return Mono.just(new Response(decision.allowed(), headers));
+    }
+
+    private void count(String routeId, String outcome) {
+        decisions.computeIfAbsent(routeId + "|" + outcome, name -> Counter.builder("gateway.ratelimit.requests")
+                        .description("Rate limiter decisions per route")
+                        .tag("route", routeId)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    // Refilled lazily from the time elapsed since it was last touched
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAtNanos = System.nanoTime();
+
+        Bucket(double tokens) {
+            this.tokens = tokens;
+        }
+
+        synchronized Decision tryConsume(int requested, int replenishRate, int burstCapacity) {
+            long now = System.nanoTime();
+            tokens = Math.min(burstCapacity, tokens + (now - refilledAtNanos) / 1e9 * replenishRate);
+            refilledAtNanos = now;
+            if (tokens >= requested) {
+                tokens -= requested;
+                return new Decision(true, tokens, 0);
+            }
+            return new Decision(false, tokens, (requested - tokens) / replenishRate);
+        }
+    }
+
+    private record Decision(boolean allowed, double remaining, double retryAfterSeconds) {
+    }
+
+    public static class Config {
+
+        // Tokens added per second
+        @Min(1)
+        private int replenishRate;
+
+        // Tokens a bucket holds at most, i.e. the burst a client can send after being idle
+        @Min(0)
+        private int burstCapacity = 1;
+
+        // Tokens one request costs
+        @Min(1)
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dev.francode.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Beans referenced from route filters: RequestRateLimiter (key-resolver/rate-limiter) and ConcurrencyLimit
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration {
+
+    @Bean
+    public ClientKeyResolver clientKeyResolver(RateLimitProperties properties) {
+        return new ClientKeyResolver(properties);
+    }
+
+    @Bean
+    public LocalRateLimiter localRateLimiter(RateLimitProperties properties, ConfigurationService configurationService,
+                                             MeterRegistry meterRegistry) {
+        return new LocalRateLimiter(properties, configurationService, meterRegistry);
+    }
+
+    @Bean
+    public ConcurrencyLimitGatewayFilterFactory concurrencyLimitGatewayFilterFactory(MeterRegistry meterRegistry) {
+        return new ConcurrencyLimitGatewayFilterFactory(meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package dev.francode.apigateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+// Settings shared by the local rate limiter and the client key resolver (gateway.rate-limit.*).
+// Per-route rates are filter args of RequestRateLimiter (local-rate-limiter.*).
+@ConfigurationProperties("gateway.rate-limit")
+public record RateLimitProperties(
+        // Clients sending one of the api-keys in this header are limited per key, everyone else per address
+        @DefaultValue("X-Api-Key") String apiKeyHeader,
+        // Keys issued to clients; any other value in the header is ignored, so it cannot buy a fresh bucket
+        @DefaultValue Set<String> apiKeys,
+        // Proxies in front of the gateway whose X-Forwarded-For entries are trusted; 0 uses the socket address
+        @DefaultValue("0") int trustedProxies,
+        // Upper bound on the buckets held in memory; least recently used clients are dropped first
+        @DefaultValue("100000") long maxClients,
+        // An idle bucket is forgotten after this long (it would have refilled by then anyway)
+        @DefaultValue("10m") Duration idleExpiry) {
+}
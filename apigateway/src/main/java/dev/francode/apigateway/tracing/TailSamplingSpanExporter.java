@@ -0,0 +1,157 @@
+package dev.francode.apigateway.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Tail sampling in front of the real exporter. Every span is recorded (sampling probability 1.0) and held here,
+// grouped by trace, until the trace's local root span ends. The trace is then exported only if one of its spans
+// failed or took at least the latency threshold; the rest are dropped.
+// Each service decides on its own part of a trace. A slow or failing downstream hop makes the calling span slow
+// or failed as well, so a kept trace always has the spans of the hop the time went to.
+public class TailSamplingSpanExporter implements SpanExporter {
+
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final List<AttributeKey<String>> STATUS_CODES = List.of(
+            AttributeKey.stringKey("status"),
+            AttributeKey.stringKey("http.status_code"),
+            AttributeKey.stringKey("http.response.status_code"));
+
+    private final SpanExporter delegate;
+    private final long thresholdNanos;
+    private final int maxPendingTraces;
+    private final long maxPendingNanos;
+    // Insertion order, so the oldest traces come first
+    private final Map<String, PendingTrace> pending = new LinkedHashMap<>();
+    // Recent decisions, for spans that end after their local root (async work)
+    private final Map<String, Boolean> decided;
+
+    public TailSamplingSpanExporter(SpanExporter delegate, Duration latencyThreshold, int maxPendingTraces,
+                                    Duration maxPendingTime) {
+        this.delegate = delegate;
+        this.thresholdNanos = latencyThreshold.toNanos();
+        this.maxPendingTraces = maxPendingTraces;
+        this.maxPendingNanos = maxPendingTime.toNanos();
+        this.decided = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxPendingTraces;
+            }
+        };
+    }
+
+    // Only the sampling decision holds the lock; the delegate writes the kept spans outside it
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        List<SpanData> kept = sample(spans);
+        return kept.isEmpty() ? CompletableResultCode.ofSuccess() : delegate.export(kept);
+    }
+
+    private synchronized List<SpanData> sample(Collection<SpanData> spans) {
+        List<SpanData> kept = new ArrayList<>();
+        long now = System.nanoTime();
+        for (SpanData span : spans) {
+            Boolean keep = decided.get(span.getTraceId());
+            if (keep != null) {
+                if (keep) {
+                    kept.add(span);
+                }
+                continue;
+            }
+            PendingTrace trace = pending.computeIfAbsent(span.getTraceId(), id -> new PendingTrace(now));
+            trace.add(span, isSlowOrFailed(span));
+            if (isLocalRoot(span)) {
+                decide(span.getTraceId(), pending.remove(span.getTraceId()), kept);
+            }
+        }
+        // Traces whose root never ends here, e.g. a long stream or a span leaked by its caller
+        Iterator<Map.Entry<String, PendingTrace>> oldest = pending.entrySet().iterator();
+        while (oldest.hasNext()) {
+            Map.Entry<String, PendingTrace> entry = oldest.next();
+            if (pending.size() <= maxPendingTraces && now - entry.getValue().firstSeenNanos < maxPendingNanos) {
+                break;
+            }
+            oldest.remove();
+            decide(entry.getKey(), entry.getValue(), kept);
+        }
+        return kept;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        List<SpanData> kept = new ArrayList<>();
+        synchronized (this) {
+            pending.forEach((traceId, trace) -> decide(traceId, trace, kept));
+            pending.clear();
+        }
+        if (!kept.isEmpty()) {
+            delegate.export(kept).join(10, TimeUnit.SECONDS);
+        }
+        return delegate.shutdown();
+    }
+
+    private void decide(String traceId, PendingTrace trace, List<SpanData> kept) {
+        decided.put(traceId, trace.keep);
+        if (trace.keep) {
+            kept.addAll(trace.spans);
+        }
+    }
+
+    private boolean isSlowOrFailed(SpanData span) {
+        if (span.getEndEpochNanos() - span.getStartEpochNanos() >= thresholdNanos
+                || span.getStatus().getStatusCode() == StatusCode.ERROR) {
+            return true;
+        }
+        // HTTP observations report 5xx answers as tags rather than errors
+        Attributes attributes = span.getAttributes();
+        if ("SERVER_ERROR".equals(attributes.get(OUTCOME))) {
+            return true;
+        }
+        for (AttributeKey<String> key : STATUS_CODES) {
+            String status = attributes.get(key);
+            if (status != null && status.length() == 3 && status.charAt(0) == '5') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLocalRoot(SpanData span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private static final class PendingTrace {
+
+        private final long firstSeenNanos;
+        private final List<SpanData> spans = new ArrayList<>(4);
+        private boolean keep;
+
+        private PendingTrace(long firstSeenNanos) {
+            this.firstSeenNanos = firstSeenNanos;
+        }
+
+        private void add(SpanData span, boolean slowOrFailed) {
+            spans.add(span);
+            keep |= slowOrFailed;
+        }
+    }
+}
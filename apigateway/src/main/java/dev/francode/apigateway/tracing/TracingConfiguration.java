@@ -0,0 +1,18 @@
+package dev.francode.apigateway.tracing;
+
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfiguration {
+
+    // Picked up by the OpenTelemetry auto-configuration, behind its batch span processor
+    @Bean
+    public SpanExporter tailSamplingSpanExporter(TracingProperties properties) {
+        return new TailSamplingSpanExporter(new JsonFileSpanExporter(properties.file()),
+                properties.latencyThreshold(), properties.maxPendingTraces(), properties.maxPendingTime());
+    }
+}
@@ -0,0 +1,19 @@
+package dev.francode.apigateway.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Span export and tail sampling (gateway.tracing.*)
+@ConfigurationProperties("gateway.tracing")
+public record TracingProperties(
+        // JSON lines file the kept spans are appended to
+        @DefaultValue("traces/apigateway.jsonl") Path file,
+        // A trace is kept when one of its spans failed or took at least this long
+        @DefaultValue("500ms") Duration latencyThreshold,
+        // Traces waiting for their root span; past either bound the oldest is decided with what it has
+        @DefaultValue("10000") int maxPendingTraces,
+        @DefaultValue("30s") Duration maxPendingTime) {
+}
@@ -0,0 +1,188 @@
+package dev.francode.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import dev.francode.apigateway.ratelimit.LocalRateLimiter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The gateway in front of local stand-ins for microservice-product: two fast ones and a slow one
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "gateway.response-cache.enabled=false",
+        // Short memory so cold-start latencies (connection setup, JIT) are forgotten within the test
+        "gateway.load-balancer.decay-time=1s",
+        "gateway.hedging.min-samples=5",
+        "gateway.hedging.min-delay=20ms",
+        "gateway.hedging.budget-burst=50"
+})
+class LoadBalancingTest {
+
+    private static final StandIn FAST = new StandIn("fast");
+    private static final StandIn STALLING = new StandIn("stalling");
+    private static final StandIn SLOW = new StandIn("slow");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LocalRateLimiter rateLimiter;
+
+    @DynamicPropertySource
+    static void instances(DynamicPropertyRegistry registry) {
+        SLOW.delay = Duration.ofMillis(500);
+        List<String> uris = List.of(FAST.start(), STALLING.start(), SLOW.start());
+        for (int i = 0; i < uris.size(); i++) {
+            String uri = uris.get(i);
+            registry.add("spring.cloud.discovery.client.simple.instances.microservice-product[" + i + "].uri", () -> uri);
+        }
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        FAST.server.disposeNow();
+        STALLING.server.disposeNow();
+        SLOW.server.disposeNow();
+    }
+
+    // Every request comes from one address; these tests measure balancing, so that client's bucket is made large
+    // enough for them instead of the route's production rate
+    @BeforeEach
+    void widenRateLimit() {
+        LocalRateLimiter.Config config = rateLimiter.getConfig().get("microservice-product");
+        assertNotNull(config, "rate limiter configuration of the product route");
+        config.setReplenishRate(10_000).setBurstCapacity(10_000);
+    }
+
+    @Test
+    void slowInstanceGetsLittleTraffic() {
+        int requests = 400;
+        warmUp();
+        int slowBefore = SLOW.hits.get();
+
+        List<ResponseEntity<Void>> responses = Flux.range(0, requests)
+                .flatMap(i -> client().get().uri("/api/products/{id}", i).retrieve().toBodilessEntity(), 8)
+                .collectList()
+                .block(Duration.ofSeconds(60));
+
+        assertTrue(responses.stream().allMatch(response -> response.getStatusCode().is2xxSuccessful()));
+        int slowHits = SLOW.hits.get() - slowBefore;
+        // Round robin would send it a third; it only gets the occasional probe and the pairings it wins
+        assertTrue(slowHits < requests / 6, "slow instance received " + slowHits + " of " + requests);
+    }
+
+    @Test
+    void stalledInstanceIsHedged() {
+        warmUp();
+        double hedgesBefore = hedgesWon();
+        STALLING.delay = Duration.ofSeconds(3);
+        try {
+            for (int i = 0; i < 40; i++) {
+                long start = System.nanoTime();
+                ResponseEntity<Void> response = client().get().uri("/api/products/{id}", i)
+                        .retrieve().toBodilessEntity().block(Duration.ofSeconds(10));
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+                assertTrue(response.getStatusCode().is2xxSuccessful());
+                assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0, "request " + i + " took " + elapsed);
+            }
+        } finally {
+            STALLING.delay = Duration.ZERO;
+        }
+        assertTrue(hedgesWon() > hedgesBefore, "no request was answered by a hedge");
+    }
+
+    @Test
+    void unreachableInstanceIsFailedOver() {
+        warmUp();
+        double failoversBefore = hedgingCount("failover");
+        STALLING.down = true;
+        try {
+            List<ResponseEntity<Void>> responses = Flux.range(0, 50)
+                    .concatMap(i -> client().get().uri("/api/products/{id}", i).retrieve().toBodilessEntity())
+                    .collectList()
+                    .block(Duration.ofSeconds(30));
+
+            assertTrue(responses.stream().allMatch(response -> response.getStatusCode().is2xxSuccessful()));
+            assertTrue(hedgingCount("failover") > failoversBefore, "the unreachable instance was never tried");
+        } finally {
+            STALLING.down = false;
+        }
+    }
+
+    private void warmUp() {
+        Flux.range(0, 50)
+                .flatMap(i -> client().get().uri("/api/products/{id}", i).retrieve().toBodilessEntity(), 4)
+                .blockLast(Duration.ofSeconds(30));
+        Mono.delay(Duration.ofSeconds(2)).block();
+    }
+
+    private WebClient client() {
+        return WebClient.create("http://localhost:" + port);
+    }
+
+    private double hedgesWon() {
+        return hedgingCount("hedge_won");
+    }
+
+    private double hedgingCount(String outcome) {
+        Counter counter = meterRegistry.find("gateway.hedging.requests").tag("outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static class StandIn {
+
+        private final String name;
+        private final AtomicInteger hits = new AtomicInteger();
+        private volatile Duration delay = Duration.ZERO;
+        // Drops every connection it is sent, like a crashing instance
+        private volatile boolean down;
+        private DisposableServer server;
+
+        StandIn(String name) {
+            this.name = name;
+        }
+
+        String start() {
+            server = HttpServer.create()
+                    .host("localhost")
+                    .port(0)
+                    .route(routes -> routes.get("/api/products/{id}", (request, response) -> {
+                        hits.incrementAndGet();
+                        if (down) {
+                            return Mono.fromRunnable(() -> request.withConnection(Connection::dispose));
+                        }
+                        return Mono.delay(delay).then(response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"instance\":\"" + name + "\"}"))
+                                .then());
+                    }))
+                    .bindNow();
+            return "http://localhost:" + server.port();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package dev.francode.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Only configured keys get a bucket of their own; a made-up key is charged to the caller's address
+class ClientKeyResolverTest {
+
+    private final ClientKeyResolver resolver = new ClientKeyResolver(
+            new RateLimitProperties("X-Api-Key", Set.of("partner-key"), 0, 1000, Duration.ofMinutes(10)));
+
+    @Test
+    void configuredKeyIsItsOwnClient() {
+        assertEquals("key:partner-key", resolve("partner-key"));
+    }
+
+    @Test
+    void unknownOrMissingKeyFallsBackToTheAddress() {
+        assertEquals("ip:10.0.0.7", resolve("made-up-key"));
+        assertEquals("ip:10.0.0.7", resolve(null));
+    }
+
+    private String resolve(String apiKey) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/products/1")
+                .remoteAddress(new InetSocketAddress("10.0.0.7", 40000));
+        if (apiKey != null) {
+            request.header("X-Api-Key", apiKey);
+        }
+        return resolver.resolve(MockServerWebExchange.from(request)).block();
+    }
+}
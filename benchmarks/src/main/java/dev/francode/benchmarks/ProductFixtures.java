@@ -0,0 +1,47 @@
+package dev.francode.benchmarks;
+
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.entity.Product;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Representative payloads shared by the benchmarks
+final class ProductFixtures {
+
+    static final String DESCRIPTION = "Stainless steel body, 1.7 l capacity, auto shut-off and boil-dry protection. "
+            + "Includes a removable limescale filter and a 360 degree swivel base.";
+
+    private ProductFixtures() {
+    }
+
+    static ProductRequestDTO request() {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName("Electric kettle 1.7 l");
+        request.setDescription(DESCRIPTION);
+        request.setStock(42);
+        request.setPrice(new BigDecimal("39.90"));
+        return request;
+    }
+
+    static ProductRequestDTO invalidRequest() {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName(" ");
+        request.setDescription("");
+        request.setStock(-1);
+        request.setPrice(new BigDecimal("-5.00"));
+        return request;
+    }
+
+    static final Instant UPDATED_AT = Instant.parse("2025-06-01T10:15:30Z");
+
+    static Product entity(long id) {
+        return new Product(id, "Electric kettle 1.7 l", DESCRIPTION, 42, new BigDecimal("39.90"), 3L, UPDATED_AT);
+    }
+
+    static ProductResponseDTO response(long id) {
+        return new ProductResponseDTO(id, "Electric kettle 1.7 l", DESCRIPTION, 42, new BigDecimal("39.90"),
+                3L, UPDATED_AT);
+    }
+}
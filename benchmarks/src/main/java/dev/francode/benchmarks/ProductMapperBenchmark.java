@@ -0,0 +1,46 @@
+package dev.francode.benchmarks;
+
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.entity.Product;
+import dev.francode.microservice.product.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    private ProductRequestDTO request;
+    private Product entity;
+
+    @Setup
+    public void setUp() {
+        request = ProductFixtures.request();
+        entity = ProductFixtures.entity(1L);
+    }
+
+    @Benchmark
+    public Product toEntity() {
+        return ProductMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public ProductResponseDTO toResponseDto() {
+        return ProductMapper.toResponseDto(entity);
+    }
+}
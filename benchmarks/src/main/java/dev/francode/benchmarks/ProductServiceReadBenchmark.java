@@ -0,0 +1,133 @@
+package dev.francode.benchmarks;
+
+import dev.francode.microservice.product.MicroserviceProductApplication;
+import dev.francode.microservice.product.dto.CursorPageDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.filter.ProductFilterIndex;
+import dev.francode.microservice.product.search.ProductSearchIndex;
+import dev.francode.microservice.product.service.interfaces.ProductService;
+import dev.francode.microservice.product.stats.ProductCatalogStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// ProductServiceImpl reads through the real Spring context (cache, read models, JPA) against an in-memory H2
+// seeded with the given number of rows. Prices cycle through 1000 distinct values and every fifth product is out of stock.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ProductServiceReadBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int DISTINCT_PRICES = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(MicroserviceProductApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--eureka.client.enabled=false",
+                        "--spring.cloud.config.enabled=false",
+                        "--spring.cloud.discovery.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:mem:bench-" + rows + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--logging.level.root=WARN");
+
+        // Set-based insert instead of the service: seeding 1M rows through JPA would dominate the run
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into product (id, name, description, stock, price) "
+                        + "select x, 'Product ' || x, ?, case when mod(x, 5) = 0 then 0 else mod(x, 50) end, "
+                        + "mod(x, ?) + 0.99 from system_range(1, ?)",
+                ProductFixtures.DESCRIPTION, DISTINCT_PRICES, rows);
+        jdbcTemplate.execute("alter sequence product_seq restart with " + (rows + 1));
+
+        // The read models loaded on startup saw an empty table
+        context.getBean(ProductSearchIndex.class).load();
+        context.getBean(ProductCatalogStats.class).load();
+        context.getBean(ProductFilterIndex.class).load();
+        productService = context.getBean(ProductService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<ProductResponseDTO> getProductById() {
+        return productService.getProductById(randomId());
+    }
+
+    @Benchmark
+    public Page<ProductResponseDTO> getAllProductsRandomPage() {
+        int page = ThreadLocalRandom.current().nextInt(rows / PAGE_SIZE);
+        return productService.getAllProducts(PageRequest.of(page, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public CursorPageDTO<ProductResponseDTO> scrollFirstPageByPrice() {
+        return productService.scrollProducts(null, "price", "asc", PAGE_SIZE);
+    }
+
+    // One distinct price: rows / 1000 matches
+    @Benchmark
+    public List<ProductResponseDTO> getProductsByNarrowPriceRange() {
+        BigDecimal price = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(DISTINCT_PRICES) * 100L + 99, 2);
+        return productService.getProductsByPriceRange(price, price);
+    }
+
+    // Ten distinct prices, in stock only: rows / 125 matches
+    @Benchmark
+    public List<ProductResponseDTO> filterPriceRangeInStock() {
+        long from = ThreadLocalRandom.current().nextInt(DISTINCT_PRICES - 10) * 100L + 99;
+        return productService.filterProducts(BigDecimal.valueOf(from, 2), BigDecimal.valueOf(from + 900, 2), true);
+    }
+
+    @Benchmark
+    public Page<ProductResponseDTO> searchProductsByName() {
+        return productService.searchProducts("product " + randomId(), PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public long countAvailableProducts() {
+        return productService.countAvailableProducts();
+    }
+
+    @Benchmark
+    public Optional<ProductResponseDTO> getMostExpensiveProduct() {
+        return productService.getMostExpensiveProduct();
+    }
+
+    private long randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(rows);
+    }
+}
@@ -0,0 +1,99 @@
+package dev.francode.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Cost of each wire format the product API negotiates, with and without gzip on top:
+// serializing a page as the server does, and parsing the product list back as a service-to-service caller does.
+// Payload sizes are printed once per trial, ahead of the timings.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductWireFormatBenchmark {
+
+    private static final TypeReference<List<ProductResponseDTO>> PRODUCT_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PageImpl<ProductResponseDTO> page;
+    private byte[] encodedList;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        List<ProductResponseDTO> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(ProductFixtures.response(i + 1L));
+        }
+        page = new PageImpl<>(content, PageRequest.of(3, pageSize), 100_000);
+        encodedList = encode(content);
+        System.out.printf("%n%s gzip=%s pageSize=%d: page %d bytes, product list %d bytes%n",
+                format, gzip, pageSize, serializePage().length, encodedList.length);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return encode(page);
+    }
+
+    @Benchmark
+    public List<ProductResponseDTO> deserializeList() throws IOException {
+        InputStream input = new ByteArrayInputStream(encodedList);
+        if (gzip) {
+            input = new GZIPInputStream(input);
+        }
+        return objectMapper.readValue(input, PRODUCT_LIST);
+    }
+
+    private byte[] encode(Object value) throws IOException {
+        if (!gzip) {
+            return objectMapper.writeValueAsBytes(value);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream compressed = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(compressed, value);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,183 @@
+package dev.francode.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Startup time and time to first request of one service, regular start against the fast-start build
+// (mvn package -Pfast-start in the service directory; that build also serves the regular runs).
+// Each run is a fresh JVM; modes alternate within a run so they see the same machine state:
+//   regular    java -jar target/<jar>
+//   aot        ahead-of-time bean definitions, fast-start Spring profile
+//   aot+cds    the same, plus the class-data sharing archive recorded by the build
+//   cds        the archive alone, for services built without the ahead-of-time step (Eureka Server)
+// "started" is the JVM uptime Spring Boot reports once the context is up; "first request" is measured from
+// process launch to the first 2xx answer on a request the service can only serve when fully started.
+// Logs of every run are kept under benchmarks/target/startup-logs.
+public class StartupTime {
+
+    private static final Pattern PROCESS_RUNNING = Pattern.compile("process running for ([0-9.]+)");
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+
+    // fastStartProfiles is null when the fast-start build has no ahead-of-time step
+    private record Service(String name, String probe, String fastStartProfiles) {
+    }
+
+    private static final Map<String, Service> SERVICES = Map.of(
+            "microservice-product", new Service("microservice-product", "/api/products/count", "fast-start"),
+            "apigateway", new Service("apigateway", "/actuator/health", "fast-start"),
+            "config-server", new Service("config-server", "/microservice-product/default", "native,fast-start"),
+            "service-registry", new Service("service-registry", "/eureka/apps", null));
+
+    private record Result(double started, double firstRequest) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || !SERVICES.containsKey(args[1])) {
+            System.err.println("usage: StartupTime <repository root> <" + String.join("|", SERVICES.keySet())
+                    + "> [runs]");
+            System.exit(2);
+        }
+        Path root = Path.of(args[0]).toAbsolutePath().normalize();
+        Service service = SERVICES.get(args[1]);
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        Path directory = root.resolve(service.name());
+        Path fastStart = directory.resolve("target/fast-start");
+        String jar = findJar(fastStart);
+        Path logs = root.resolve("benchmarks/target/startup-logs");
+        Files.createDirectories(logs);
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("regular", List.of("-jar", "target/" + jar));
+        if (service.fastStartProfiles() != null) {
+            modes.put("aot", List.of("-Dspring.aot.enabled=true",
+                    "-Dspring.profiles.active=" + service.fastStartProfiles(),
+                    "-jar", "target/fast-start/" + jar));
+            modes.put("aot+cds", List.of("-XX:SharedArchiveFile=target/fast-start/application.jsa", "-Xlog:cds=off",
+                    "-Dspring.aot.enabled=true",
+                    "-Dspring.profiles.active=" + service.fastStartProfiles(),
+                    "-jar", "target/fast-start/" + jar));
+        } else {
+            modes.put("cds", List.of("-XX:SharedArchiveFile=target/fast-start/application.jsa", "-Xlog:cds=off",
+                    "-jar", "target/fast-start/" + jar));
+        }
+
+        Map<String, List<Result>> results = new LinkedHashMap<>();
+        modes.keySet().forEach(mode -> results.put(mode, new ArrayList<>()));
+        for (int run = 1; run <= runs; run++) {
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                Path log = logs.resolve(service.name() + "-" + mode.getKey().replace('+', '-') + "-" + run + ".log");
+                Result result = launch(service, directory, mode.getValue(), log);
+                results.get(mode.getKey()).add(result);
+                System.out.printf("run %d %-8s started %6.2fs  first request %6.2fs%n",
+                        run, mode.getKey(), result.started(), result.firstRequest());
+            }
+        }
+
+        System.out.printf("%n%s, %d runs (median / min)%n", service.name(), runs);
+        System.out.printf("%-10s %-20s %-20s%n", "mode", "started (s)", "first request (s)");
+        results.forEach((mode, measured) -> System.out.printf("%-10s %-20s %-20s%n", mode,
+                summary(measured.stream().map(Result::started).toList()),
+                summary(measured.stream().map(Result::firstRequest).toList())));
+    }
+
+    private static Result launch(Service service, Path directory, List<String> mode, Path log) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(mode);
+        command.add("--server.port=" + port);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create("http://localhost:" + port + service.probe()))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            double firstRequest = -1;
+            while (firstRequest < 0) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(service.name() + " exited early, see " + log);
+                }
+                if (System.nanoTime() - launched > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException(service.name() + " did not answer in " + TIMEOUT + ", see " + log);
+                }
+                try {
+                    HttpResponse<Void> response = client.send(probe, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() / 100 == 2) {
+                        firstRequest = (System.nanoTime() - launched) / 1e9;
+                    }
+                } catch (IOException ex) {
+                    // not listening yet
+                }
+                if (firstRequest < 0) {
+                    Thread.sleep(20);
+                }
+            }
+            return new Result(startedSeconds(log), firstRequest);
+        } finally {
+            process.descendants().forEach(ProcessHandle::destroy);
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static double startedSeconds(Path log) throws IOException {
+        try (Stream<String> lines = Files.lines(log)) {
+            return lines.map(PROCESS_RUNNING::matcher)
+                    .filter(Matcher::find)
+                    .map(matcher -> Double.parseDouble(matcher.group(1)))
+                    .findFirst()
+                    .orElse(Double.NaN);
+        }
+    }
+
+    private static String findJar(Path fastStart) throws IOException {
+        if (!Files.isDirectory(fastStart)) {
+            throw new IllegalStateException("No fast-start build in " + fastStart + ", run mvn package -Pfast-start");
+        }
+        try (Stream<Path> files = Files.list(fastStart)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in " + fastStart));
+        }
+    }
+
+    private static String summary(List<Double> values) {
+        List<Double> sorted = values.stream().sorted().toList();
+        return String.format("%.2f / %.2f", sorted.get(sorted.size() / 2), sorted.get(0));
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package dev.francode.configserver.changes;
+
+import java.util.List;
+import java.util.Map;
+
+// Data of a "change" event on GET /changes: the properties (as the client sees them, first property source wins)
+// that differ from the version the subscriber had. full means the server no longer knows that version and changed
+// holds every property; removals cannot be listed then, so clients refetch their whole configuration.
+public record ConfigChange(String application, String profile, String label, String version, boolean full,
+                           Map<String, Object> changed, List<String> removed) {
+}
@@ -0,0 +1,27 @@
+package dev.francode.configserver.changes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Change stream for config clients (GET /changes): instead of polling or waiting for a restart, a client keeps one
+// server-sent event stream open and receives only the properties that changed.
+@Configuration(proxyBeanMethods = false)
+public class ConfigChangeConfiguration {
+
+    // The primary repository is the composite the controllers use, so pushed values match fetched ones
+    @Bean
+    public ConfigChangeNotifier configChangeNotifier(
+            EnvironmentRepository repository,
+            ObjectProvider<EnvironmentEncryptor> encryptor,
+            @Value("${config-server.changes.timeout:10m}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        return new ConfigChangeNotifier(repository, encryptor, timeout, meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package dev.francode.configserver.changes;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Server-sent events for one environment, e.g.
+//   GET /changes?application=microservice-product&profile=default&version=<config.client.version>
+// Each "change" event carries a ConfigChange. The stream ends after config-server.changes.timeout; clients
+// reconnect with the version they have by then and miss nothing.
+@RestController
+public class ConfigChangeController {
+
+    private final ConfigChangeNotifier notifier;
+
+    public ConfigChangeController(ConfigChangeNotifier notifier) {
+        this.notifier = notifier;
+    }
+
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestParam String application,
+                              @RequestParam(defaultValue = "default") String profile,
+                              @RequestParam(required = false) String label,
+                              @RequestParam(required = false) String version) {
+        return notifier.subscribe(application, profile, label, version);
+    }
+}
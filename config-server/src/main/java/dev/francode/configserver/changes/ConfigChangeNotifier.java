@@ -0,0 +1,205 @@
+package dev.francode.configserver.changes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Push side of the change stream. Subscribers are grouped by the environment they fetch (application, profile,
+// label); after a configuration change each group's environment is loaded once, compared with the previous one and
+// only the differing properties are sent. The last few versions are kept per group, so a client reconnecting with
+// an older version still gets a diff instead of a full resync.
+public class ConfigChangeNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigChangeNotifier.class);
+    private static final int VERSIONS_KEPT = 8;
+
+    private record Key(String application, String profile, String label) {
+    }
+
+    private record Snapshot(String version, Map<String, Object> properties) {
+    }
+
+    private final EnvironmentRepository repository;
+    private final ObjectProvider<EnvironmentEncryptor> encryptor;
+    private final Duration timeout;
+    private final Map<Key, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final Counter sent;
+
+    public ConfigChangeNotifier(EnvironmentRepository repository, ObjectProvider<EnvironmentEncryptor> encryptor,
+                                Duration timeout, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.encryptor = encryptor;
+        this.timeout = timeout;
+        this.sent = Counter.builder("config.changes.sent")
+                .description("Change events sent to subscribed clients")
+                .register(meterRegistry);
+        Gauge.builder("config.changes.subscribers", this, ConfigChangeNotifier::subscriberCount)
+                .description("Open change streams")
+                .register(meterRegistry);
+    }
+
+    // knownVersion is the version the client runs with (null if none): it gets a change event right away when the
+    // configuration has moved on since
+    public SseEmitter subscribe(String application, String profile, String label, String knownVersion) {
+        Key key = new Key(application, profile, label);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        while (true) {
+            Subscription subscription = subscriptions.computeIfAbsent(key, Subscription::new);
+            synchronized (subscription) {
+                // Dropped by publishChanges in the meantime
+                if (subscription.closed) {
+                    continue;
+                }
+                Snapshot current = advance(subscription);
+                subscription.emitters.add(emitter);
+                Runnable remove = () -> subscription.emitters.remove(emitter);
+                emitter.onCompletion(remove);
+                emitter.onTimeout(remove);
+                emitter.onError(error -> remove.run());
+                send(subscription, emitter, SseEmitter.event().comment("version " + current.version()));
+                if (!current.version().equals(knownVersion)) {
+                    send(subscription, emitter, event(subscription.changeSince(knownVersion, current)));
+                }
+                return emitter;
+            }
+        }
+    }
+
+    // Called after the configuration files changed (and the cache was cleared)
+    public void publishChanges() {
+        for (Subscription subscription : subscriptions.values()) {
+            synchronized (subscription) {
+                if (subscription.emitters.isEmpty()) {
+                    subscription.closed = true;
+                    subscriptions.remove(subscription.key, subscription);
+                    continue;
+                }
+                try {
+                    advance(subscription);
+                } catch (RuntimeException ex) {
+                    // e.g. a file caught half-written; the next change event loads it again
+                    log.warn("Loading {} failed, not notifying its {} subscribers", subscription.key,
+                            subscription.emitters.size(), ex);
+                }
+            }
+        }
+    }
+
+    // Loads the group's environment and sends the difference to its current subscribers if it moved on
+    private Snapshot advance(Subscription subscription) {
+        Snapshot previous = subscription.current;
+        Snapshot current = subscription.update(load(subscription.key));
+        if (previous == null || current.version().equals(previous.version()) || subscription.emitters.isEmpty()) {
+            return current;
+        }
+        ConfigChange change = subscription.changeSince(previous.version(), current);
+        log.info("Configuration of {} changed to version {}: {} changed, {} removed, {} subscribers",
+                subscription.key, current.version(), change.changed().keySet(), change.removed(),
+                subscription.emitters.size());
+        for (SseEmitter emitter : subscription.emitters) {
+            send(subscription, emitter, event(change));
+        }
+        return current;
+    }
+
+    private int subscriberCount() {
+        return subscriptions.values().stream().mapToInt(subscription -> subscription.emitters.size()).sum();
+    }
+
+    private SseEmitter.SseEventBuilder event(ConfigChange change) {
+        return SseEmitter.event().name("change").id(change.version()).data(change, MediaType.APPLICATION_JSON);
+    }
+
+    private void send(Subscription subscription, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            sent.increment();
+        } catch (IOException | IllegalStateException ex) {
+            // Client gone
+            subscription.emitters.remove(emitter);
+            emitter.completeWithError(ex);
+        }
+    }
+
+    // Properties as the client resolves them: the first property source holding a key wins
+    private Snapshot load(Key key) {
+        Environment environment = repository.findOne(key.application(), key.profile(), key.label());
+        EnvironmentEncryptor decryptor = encryptor.getIfAvailable();
+        if (decryptor != null) {
+            environment = decryptor.decrypt(environment);
+        }
+        Map<String, Object> properties = new TreeMap<>();
+        for (PropertySource source : environment.getPropertySources()) {
+            source.getSource().forEach((name, value) -> properties.putIfAbsent(String.valueOf(name), value));
+        }
+        String version = environment.getVersion() != null ? environment.getVersion()
+                : Integer.toHexString(properties.hashCode());
+        return new Snapshot(version, properties);
+    }
+
+    private final class Subscription {
+
+        private final Key key;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final Map<String, Map<String, Object>> versions = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, Object>> eldest) {
+                return size() > VERSIONS_KEPT;
+            }
+        };
+        private Snapshot current;
+        private boolean closed;
+
+        private Subscription(Key key) {
+            this.key = key;
+        }
+
+        private Snapshot update(Snapshot snapshot) {
+            versions.put(snapshot.version(), snapshot.properties());
+            current = snapshot;
+            return snapshot;
+        }
+
+        private ConfigChange changeSince(String version, Snapshot current) {
+            Map<String, Object> before = version == null ? null : versions.get(version);
+            if (before == null) {
+                return new ConfigChange(key.application(), key.profile(), key.label(), current.version(), true,
+                        current.properties(), List.of());
+            }
+            Map<String, Object> changed = new TreeMap<>();
+            current.properties().forEach((name, value) -> {
+                if (!Objects.equals(before.get(name), value)) {
+                    changed.put(name, value);
+                }
+            });
+            List<String> removed = new ArrayList<>();
+            for (String name : before.keySet()) {
+                if (!current.properties().containsKey(name)) {
+                    removed.add(name);
+                }
+            }
+            return new ConfigChange(key.application(), key.profile(), key.label(), current.version(), false, changed,
+                    removed);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package dev.francode.configserver.environment;
+
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.core.Ordered;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Native repository behind the parsed-environment cache. Takes its place in the composite repository the config
+// server builds, so every reader (fetches, resource lookups, the change stream) goes through the cache.
+// Environments without a backend version get a content hash as version, which is what ETags and change
+// notifications compare.
+public class CachingEnvironmentRepository implements EnvironmentRepository, SearchPathLocator, Ordered {
+
+    private final NativeEnvironmentRepository delegate;
+    // Resolved on first use: the repository is created before the cache's own dependencies are ready
+    private final Supplier<EnvironmentCache> cache;
+
+    public CachingEnvironmentRepository(NativeEnvironmentRepository delegate, Supplier<EnvironmentCache> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne(application, profile, label, false);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        EnvironmentCache.Key key = new EnvironmentCache.Key(application, profile, label, includeOrigin);
+        return cache.get().get(key, () -> versioned(delegate.findOne(application, profile, label, includeOrigin)));
+    }
+
+    @Override
+    public Locations getLocations(String application, String profile, String label) {
+        return delegate.getLocations(application, profile, label);
+    }
+
+    @Override
+    public int getOrder() {
+        return delegate.getOrder();
+    }
+
+    private static Environment versioned(Environment environment) {
+        if (environment.getVersion() == null) {
+            environment.setVersion(contentVersion(environment));
+        }
+        return environment;
+    }
+
+    // Source names, keys and values in precedence order
+    private static String contentVersion(Environment environment) {
+        MessageDigest digest = sha256();
+        for (PropertySource source : environment.getPropertySources()) {
+            update(digest, source.getName());
+            for (Map.Entry<?, ?> property : source.getSource().entrySet()) {
+                update(digest, String.valueOf(property.getKey()));
+                update(digest, String.valueOf(property.getValue()));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 12);
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package dev.francode.configserver.environment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Watches the native search locations (and their subdirectories) and runs onChange once per burst of file events:
+// editors and deploy scripts write a file in several steps, so events are collected until none arrive for the
+// quiet period. A search location that is missing, or deleted and recreated by a deployment, is checked for every
+// second and watched again once it is back.
+public class ConfigFileWatcher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigFileWatcher.class);
+    private static final long MISSING_CHECK_MILLIS = 1000;
+
+    private final List<Path> directories;
+    private final Duration quietPeriod;
+    private final Runnable onChange;
+    private volatile WatchService watchService;
+    private Thread thread;
+    // Only touched by the watcher thread once it runs
+    private final Set<Path> missing = new LinkedHashSet<>();
+
+    public ConfigFileWatcher(List<Path> directories, Duration quietPeriod, Runnable onChange) {
+        this.directories = directories;
+        this.quietPeriod = quietPeriod;
+        this.onChange = onChange;
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot watch the configuration files", ex);
+        }
+        for (Path directory : directories) {
+            if (Files.isDirectory(directory)) {
+                registerTree(directory);
+                log.info("Watching {} for configuration changes", directory);
+            } else {
+                missing.add(directory);
+                log.warn("Search location {} does not exist (yet), watching for it", directory);
+            }
+        }
+        thread = Thread.ofPlatform().daemon().name("config-file-watcher").start(this::watch);
+    }
+
+    @Override
+    public synchronized void stop() {
+        try {
+            watchService.close();
+        } catch (IOException ex) {
+            log.debug("Closing the configuration file watcher failed", ex);
+        }
+        thread.interrupt();
+        thread = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return thread != null;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = missing.isEmpty() ? watchService.take()
+                        : watchService.poll(MISSING_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+                int events = rewatchReappeared();
+                while (key != null) {
+                    events += handle(key);
+                    key = watchService.poll(quietPeriod.toMillis(), TimeUnit.MILLISECONDS);
+                }
+                if (events > 0) {
+                    log.info("Configuration files changed ({} events), reloading", events);
+                    try {
+                        onChange.run();
+                    } catch (RuntimeException ex) {
+                        log.warn("Applying a configuration change failed", ex);
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ex) {
+            // stopped
+        }
+    }
+
+    private int handle(WatchKey key) {
+        int events = 0;
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            events++;
+            // New subdirectories (e.g. a label directory) are watched as well
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                Path created = directory.resolve((Path) event.context());
+                if (Files.isDirectory(created)) {
+                    registerTree(created);
+                }
+            }
+        }
+        // The directory itself is gone; if it is a search location, it is watched again when recreated
+        if (!key.reset() && directories.contains(directory)) {
+            missing.add(directory);
+            events++;
+            log.warn("Search location {} was removed, watching for it", directory);
+        }
+        return events;
+    }
+
+    private int rewatchReappeared() {
+        int reappeared = 0;
+        for (Iterator<Path> iterator = missing.iterator(); iterator.hasNext(); ) {
+            Path directory = iterator.next();
+            if (Files.isDirectory(directory)) {
+                iterator.remove();
+                registerTree(directory);
+                reappeared++;
+                log.info("Watching {} for configuration changes", directory);
+            }
+        }
+        return reappeared;
+    }
+
+    private void registerTree(Path root) {
+        try (Stream<Path> tree = Files.walk(root)) {
+            tree.filter(Files::isDirectory).forEach(this::register);
+        } catch (IOException ex) {
+            log.warn("Cannot watch {}", root, ex);
+        }
+    }
+
+    private void register(Path directory) {
+        try {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException ex) {
+            log.warn("Cannot watch {}", directory, ex);
+        }
+    }
+}
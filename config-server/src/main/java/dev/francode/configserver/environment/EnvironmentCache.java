@@ -0,0 +1,82 @@
+package dev.francode.configserver.environment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.config.environment.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Parsed environments by request, so a fetch no longer re-reads and re-parses the YAML files behind it.
+// Entries live until ConfigFileWatcher reports a change under the search locations; the least recently used ones
+// go first past maxEntries. A load that started before an invalidation is returned but not kept.
+public class EnvironmentCache {
+
+    public record Key(String application, String profile, String label, boolean includeOrigin) {
+    }
+
+    private final int maxEntries;
+    private final Map<Key, Environment> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private long generation;
+
+    public EnvironmentCache(int maxEntries, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Environment> eldest) {
+                return size() > EnvironmentCache.this.maxEntries;
+            }
+        };
+        this.hits = Counter.builder("config.environment.cache.requests").tag("result", "hit")
+                .description("Environment lookups answered from the parsed-environment cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("config.environment.cache.requests").tag("result", "miss")
+                .description("Environment lookups that loaded and parsed the configuration files")
+                .register(meterRegistry);
+        Gauge.builder("config.environment.cache.size", this, EnvironmentCache::size)
+                .description("Parsed environments held in memory")
+                .register(meterRegistry);
+    }
+
+    public Environment get(Key key, Supplier<Environment> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Environment cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return copyOf(cached);
+            }
+            loadGeneration = generation;
+        }
+        // Loaded outside the lock: a slow parse for one application does not hold up the others
+        misses.increment();
+        Environment loaded = loader.get();
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(key, loaded);
+            }
+        }
+        return copyOf(loaded);
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Callers get their own Environment; the property sources themselves are shared and only read
+    private static Environment copyOf(Environment environment) {
+        Environment copy = new Environment(environment.getName(), environment.getProfiles(), environment.getLabel(),
+                environment.getVersion(), environment.getState());
+        copy.addAll(environment.getPropertySources());
+        return copy;
+    }
+}
@@ -0,0 +1,82 @@
+package dev.francode.configserver.environment;
+
+import dev.francode.configserver.changes.ConfigChangeNotifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentProperties;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Parsed-environment cache for the native backend: the files are only read again after the watcher saw them change,
+// and every change is pushed to the subscribed clients (ConfigChangeNotifier).
+@Configuration(proxyBeanMethods = false)
+@Profile("native")
+public class EnvironmentCacheConfiguration {
+
+    private static final String FILE_PREFIX = "file:";
+
+    @Bean
+    public EnvironmentCache environmentCache(
+            @Value("${config-server.environment-cache.max-entries:1000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        return new EnvironmentCache(maxEntries, meterRegistry);
+    }
+
+    // Wraps the repository the config server builds for the native profile, keeping its place (and order) in the
+    // composite repository in front of the controllers
+    @Bean
+    public static BeanPostProcessor cachingNativeRepositoryPostProcessor(ObjectProvider<EnvironmentCache> cache) {
+        SingletonSupplier<EnvironmentCache> resolvedCache = SingletonSupplier.of(cache::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof NativeEnvironmentRepository repository
+                        ? new CachingEnvironmentRepository(repository, resolvedCache)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public ConfigFileWatcher configFileWatcher(
+            NativeEnvironmentProperties properties,
+            EnvironmentCache cache,
+            ConfigChangeNotifier notifier,
+            @Value("${config-server.environment-cache.quiet-period:100ms}") Duration quietPeriod) {
+        return new ConfigFileWatcher(watchedDirectories(properties.getSearchLocations()), quietPeriod, () -> {
+            cache.invalidate();
+            notifier.publishChanges();
+        });
+    }
+
+    // file: locations, cut at the first {application}/{profile}/{label} placeholder; classpath: locations are
+    // packaged with the server and do not change while it runs
+    private static List<Path> watchedDirectories(String[] searchLocations) {
+        Set<Path> directories = new LinkedHashSet<>();
+        for (String location : searchLocations == null ? new String[0] : searchLocations) {
+            if (!location.startsWith(FILE_PREFIX)) {
+                continue;
+            }
+            String path = location.substring(FILE_PREFIX.length());
+            int placeholder = path.indexOf('{');
+            if (placeholder >= 0) {
+                path = path.substring(0, path.lastIndexOf('/', placeholder) + 1);
+            }
+            // file:///abs, file:/abs and file:./relative alike
+            directories.add(Path.of(path.replaceFirst("^//", "")).toAbsolutePath().normalize());
+        }
+        return new ArrayList<>(directories);
+    }
+}
@@ -0,0 +1,43 @@
+package dev.francode.configserver.environment;
+
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// ETag on environment fetches (GET /{application}/{profile}[/{label}]), from the environment's version: the
+// backend's (e.g. a commit id) or the content hash CachingEnvironmentRepository assigns. A client sending it back
+// in If-None-Match gets 304 without a body while its configuration is current.
+@RestControllerAdvice(assignableTypes = EnvironmentController.class)
+public class EnvironmentETagAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return Environment.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof Environment environment) || environment.getVersion() == null
+                || environment.getVersion().contains("\"")) {
+            return body;
+        }
+        String etag = "\"" + environment.getVersion() + "\"";
+        response.getHeaders().setETag(etag);
+        for (String match : request.getHeaders().getIfNoneMatch()) {
+            if (match.equals("*") || match.equals(etag) || match.equals("W/" + etag)) {
+                response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                return null;
+            }
+        }
+        return body;
+    }
+}
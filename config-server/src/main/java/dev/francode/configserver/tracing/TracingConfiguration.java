@@ -0,0 +1,26 @@
+package dev.francode.configserver.tracing;
+
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Config requests are traced like the other services' requests; a client that sends a traceparent (a refresh
+// triggered inside a traced request) gets the config server's spans in the same trace.
+@Configuration(proxyBeanMethods = false)
+public class TracingConfiguration {
+
+    // Picked up by the OpenTelemetry auto-configuration, behind its batch span processor
+    @Bean
+    public SpanExporter tailSamplingSpanExporter(
+            @Value("${config-server.tracing.file:traces/config-server.jsonl}") Path file,
+            @Value("${config-server.tracing.latency-threshold:500ms}") Duration latencyThreshold,
+            @Value("${config-server.tracing.max-pending-traces:1000}") int maxPendingTraces,
+            @Value("${config-server.tracing.max-pending-time:30s}") Duration maxPendingTime) {
+        return new TailSamplingSpanExporter(new JsonFileSpanExporter(file), latencyThreshold, maxPendingTraces,
+                maxPendingTime);
+    }
+}
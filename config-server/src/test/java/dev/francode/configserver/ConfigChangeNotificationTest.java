@@ -0,0 +1,90 @@
+package dev.francode.configserver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Native backend served from a temporary directory: repeat fetches are answered from the cache (and with 304 when
+// the client has the version), and editing a file reaches a subscribed client as a diff.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "config-server.environment-cache.quiet-period=50ms"
+})
+class ConfigChangeNotificationTest {
+
+    @TempDir
+    static Path configDirectory;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void searchLocations(DynamicPropertyRegistry registry) throws IOException {
+        Files.writeString(configDirectory.resolve("demo.yml"), "greeting: hello\ncolour: red\n");
+        registry.add("spring.cloud.config.server.native.search-locations", () -> "file:" + configDirectory + "/");
+    }
+
+    @Test
+    void fileChangesArePushedAndInvalidateTheCachedEnvironment() throws Exception {
+        HttpResponse<String> first = get("/demo/default", null);
+        assertEquals(200, first.statusCode());
+        String etag = first.headers().firstValue("ETag").orElse(null);
+        assertNotNull(etag);
+        assertEquals(304, get("/demo/default", etag).statusCode());
+
+        String version = etag.replace("\"", "");
+        HttpRequest subscribe = HttpRequest.newBuilder(uri("/changes?application=demo&version=" + version)).build();
+        HttpResponse<Stream<String>> stream = client.send(subscribe, HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, stream.statusCode());
+        CompletableFuture<String> change = CompletableFuture.supplyAsync(() -> stream.body()
+                .filter(line -> line.startsWith("data:"))
+                .findFirst()
+                .orElse(null));
+
+        Files.writeString(configDirectory.resolve("demo.yml"), "greeting: hi\n");
+
+        String data = change.get(10, TimeUnit.SECONDS);
+        stream.body().close();
+        assertTrue(data.contains("\"greeting\":\"hi\""), data);
+        assertTrue(data.contains("\"removed\":[\"colour\"]"), data);
+        assertTrue(data.contains("\"full\":false"), data);
+
+        HttpResponse<String> changed = get("/demo/default", etag);
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElse(null));
+        assertTrue(changed.body().contains("\"greeting\":\"hi\""), changed.body());
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
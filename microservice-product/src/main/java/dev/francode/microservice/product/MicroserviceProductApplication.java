@@ -2,10 +2,15 @@ package dev.francode.microservice.product;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+// The cache manager behind ProductCache, which takes writes from committed change events
+@EnableCaching
+@EnableScheduling
 public class MicroserviceProductApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,94 @@
+package dev.francode.microservice.product.cache;
+
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.event.ProductChangeType;
+import dev.francode.microservice.product.event.ProductChangedEvent;
+import dev.francode.microservice.product.event.ProductTombstones;
+import dev.francode.microservice.product.service.impl.ProductServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+// The product cache (ProductServiceImpl.PRODUCT_CACHE) as both stacks read and fill it.
+// A read can load a row, lose the CPU, and only then cache it, after a write of that product has committed. So
+// nothing is put unconditionally: every put is a merge on the Caffeine map that keeps the higher version, and a
+// load of a product deleted since (ProductTombstones) is not cached at all. Writes reach the cache only through
+// their committed ProductChangedEvents, which carry the new version; a delete removes the entry and leaves a
+// tombstone. The merge and the delete run in compute() on the same key, so one cannot slip between the other's
+// check and write.
+@Component
+public class ProductCache {
+
+    // Null when the cache is not Caffeine (spring.cache.type=none): nothing is cached
+    private final Map<Object, Object> entries;
+    private final ProductTombstones tombstones;
+    // Tombstones are not thread-safe; a ReentrantLock so virtual threads do not pin their carrier on it
+    private final ReentrantLock tombstoneLock = new ReentrantLock();
+
+    public ProductCache(CacheManager cacheManager,
+                        @Value("${product.read-models.tombstone-ttl:PT10M}") Duration tombstoneTtl) {
+        this.entries = cacheManager.getCache(ProductServiceImpl.PRODUCT_CACHE) instanceof CaffeineCache cache
+                ? cache.getNativeCache().asMap()
+                : null;
+        this.tombstones = new ProductTombstones(tombstoneTtl);
+    }
+
+    public Optional<ProductResponseDTO> get(Long id) {
+        return entries != null && entries.get(id) instanceof ProductResponseDTO product
+                ? Optional.of(product)
+                : Optional.empty();
+    }
+
+    // Caches a product as read from the database, unless a newer version is cached or it has been deleted since
+    public void putLoaded(ProductResponseDTO product) {
+        if (entries != null) {
+            entries.compute(product.getId(),
+                    (id, cached) -> isDeleted(product.getId()) ? null : newer(cached, product));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (entries == null) {
+            return;
+        }
+        long productId = event.getProductId();
+        if (event.getType() == ProductChangeType.DELETED) {
+            entries.compute(productId, (id, cached) -> {
+                tombstoneLock.lock();
+                try {
+                    tombstones.add(productId);
+                } finally {
+                    tombstoneLock.unlock();
+                }
+                return null;
+            });
+        } else {
+            putLoaded(event.getAfter());
+        }
+    }
+
+    private boolean isDeleted(long productId) {
+        tombstoneLock.lock();
+        try {
+            return tombstones.contains(productId);
+        } finally {
+            tombstoneLock.unlock();
+        }
+    }
+
+    private static Object newer(Object cached, ProductResponseDTO product) {
+        return cached instanceof ProductResponseDTO current && version(current) >= version(product) ? cached : product;
+    }
+
+    private static long version(ProductResponseDTO product) {
+        return product.getVersion() == null ? -1 : product.getVersion();
+    }
+}
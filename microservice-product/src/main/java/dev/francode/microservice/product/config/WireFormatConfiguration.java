@@ -0,0 +1,126 @@
+package dev.francode.microservice.product.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.reactive.accept.HeaderContentTypeResolver;
+import org.springframework.web.reactive.accept.RequestedContentTypeResolverBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.server.WebFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary wire formats for service-to-service callers, negotiated on Accept (and Content-Type for request bodies):
+// application/cbor and application/x-jackson-smile carry the same DTOs as JSON, built from Boot's Jackson settings
+// so dates and numbers come out the same way. JSON stays the default whenever Accept allows it.
+// Response compression (server.compression) applies on top of any of the three formats.
+@Configuration(proxyBeanMethods = false)
+public class WireFormatConfiguration {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    // Replace the converters MVC would register with default Jackson settings
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+            ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+    }
+
+    // WebFlux registers Smile by default (replaced here) but has no Jackson CBOR codec unless one is added
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public CodecCustomizer binaryCodecCustomizer(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        ObjectMapper cbor = cborMapper(builder);
+        ObjectMapper smile = smileMapper(builder);
+        // Media types are explicit: given a mapper alone, these codecs fall back to claiming application/json
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile, SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, SMILE));
+            configurer.customCodecs().register(new CborEncoder(cbor));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+        };
+    }
+
+    // Custom codecs come before the default JSON one, so CBOR would win whenever Accept leaves the choice open
+    // (no header, */*). Unless CBOR or Smile is asked for by name, JSON is slotted in ahead of each wildcard.
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public WebFluxConfigurer jsonFirstContentTypeResolver() {
+        HeaderContentTypeResolver accept = new HeaderContentTypeResolver();
+        return new WebFluxConfigurer() {
+            @Override
+            public void configureContentTypeResolver(RequestedContentTypeResolverBuilder builder) {
+                builder.resolver(exchange -> {
+                    List<MediaType> requested = accept.resolveMediaTypes(exchange);
+                    if (requested.stream().anyMatch(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)
+                            || type.equalsTypeAndSubtype(SMILE))) {
+                        return requested;
+                    }
+                    List<MediaType> preferred = new ArrayList<>(requested.size() + 1);
+                    for (MediaType type : requested) {
+                        if (type.isWildcardSubtype() && type.includes(MediaType.APPLICATION_JSON)) {
+                            preferred.add(new MediaType(MediaType.APPLICATION_JSON, type.getParameters()));
+                        }
+                        preferred.add(type);
+                    }
+                    return preferred;
+                });
+            }
+        };
+    }
+
+    // The same URL now has several representations; shared caches (the gateway's included) must key on Accept
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public Filter varyAcceptFilter() {
+        return (request, response, chain) -> {
+            ((HttpServletResponse) response).addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            chain.doFilter(request, response);
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public WebFilter varyAcceptWebFilter() {
+        return (exchange, chain) -> {
+            exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            // Netty, unlike Tomcat, does not announce its compression in Vary
+            exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            return chain.filter(exchange);
+        };
+    }
+
+    // Jackson2ObjectMapperBuilder is a prototype bean: every getObject() is a fresh builder with Boot's settings
+    private static ObjectMapper cborMapper(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        return builder.getObject().factory(new CBORFactory()).build();
+    }
+
+    private static ObjectMapper smileMapper(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        return builder.getObject().factory(new SmileFactory()).build();
+    }
+}
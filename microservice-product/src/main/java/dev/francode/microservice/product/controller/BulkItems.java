@@ -0,0 +1,46 @@
+package dev.francode.microservice.product.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binds bulk request items one by one so a malformed entry becomes a null item (reported in its result)
+// instead of rejecting the whole request. Shared by the MVC and reactive controllers.
+final class BulkItems {
+
+    private BulkItems() {
+    }
+
+    static <T> List<T> fromJson(ObjectMapper objectMapper, List<JsonNode> nodes, Class<T> type) {
+        List<T> items = new ArrayList<>(nodes.size());
+        for (JsonNode node : nodes) {
+            try {
+                items.add(objectMapper.treeToValue(node, type));
+            } catch (JsonProcessingException | IllegalArgumentException ex) {
+                items.add(null);
+            }
+        }
+        return items;
+    }
+
+    static <T> List<T> fromNdjson(ObjectMapper objectMapper, BufferedReader reader, Class<T> type) throws IOException {
+        List<T> items = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                items.add(objectMapper.readValue(line, type));
+            } catch (JsonProcessingException ex) {
+                items.add(null);
+            }
+        }
+        return items;
+    }
+}
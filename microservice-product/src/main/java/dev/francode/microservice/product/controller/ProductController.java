@@ -1,50 +1,109 @@
 package dev.francode.microservice.product.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.francode.microservice.product.dto.BulkOperationResponseDTO;
+import dev.francode.microservice.product.dto.CursorPageDTO;
+import dev.francode.microservice.product.dto.ProductChangeFeedDTO;
+import dev.francode.microservice.product.dto.ProductBulkUpdateDTO;
+import dev.francode.microservice.product.dto.ProductLookupRequestDTO;
+import dev.francode.microservice.product.dto.ProductLookupResponseDTO;
 import dev.francode.microservice.product.dto.ProductRequestDTO;
 import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.dto.StockRequestDTO;
+import dev.francode.microservice.product.service.interfaces.ProductBulkService;
+import dev.francode.microservice.product.service.interfaces.ProductChangeFeedService;
 import dev.francode.microservice.product.service.interfaces.ProductService;
+import dev.francode.microservice.product.service.interfaces.ProductStockService;
 import jakarta.validation.Valid;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
+// Servlet stack; ReactiveProductController serves the same API under the reactive profile
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/products")
 public class ProductController {
     private final ProductService productService;
+    private final ProductBulkService productBulkService;
+    private final ProductStockService productStockService;
+    private final ProductChangeFeedService changeFeedService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductBulkService productBulkService,
+                             ProductStockService productStockService,
+                             ProductChangeFeedService changeFeedService,
+                             ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productBulkService = productBulkService;
+        this.productStockService = productStockService;
+        this.changeFeedService = changeFeedService;
+        this.objectMapper = objectMapper;
     }
 
+    // GETs below carry a weak ETag (see ProductETags). If-None-Match is a weak comparison, so a match turns the 200
+    // into a 304 before the body is written: an unchanged product or list costs the lookup but no serialization and no
+    // payload, whatever encoding the client got it in.
+
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable Long id) {
         return productService.getProductById(id)
-                .map(ResponseEntity::ok)
+                .map(this::conditional)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Multi-get (?ids=1,2,3): one IN query for all ids not already cached, results in request order.
+    // Takes precedence over the page listing below whenever ids is present.
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductLookupResponseDTO> getProductsByIds(@RequestParam List<Long> ids) {
+        ProductLookupResponseDTO lookup = productService.getProductsByIds(ids);
+        return ResponseEntity.ok().eTag(ProductETags.of(lookup.getProducts())).body(lookup);
+    }
+
+    // Same lookup with the ids in the body, for lists too long for a URL
+    @PostMapping("/lookup")
+    public ResponseEntity<ProductLookupResponseDTO> lookupProducts(@Valid @RequestBody ProductLookupRequestDTO request) {
+        return ResponseEntity.ok(productService.getProductsByIds(request.getIds()));
+    }
+
     @PostMapping
     public ResponseEntity<ProductResponseDTO> createProduct(@Valid @RequestBody ProductRequestDTO productRequest) {
         ProductResponseDTO createdProduct = productService.createProduct(productRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ProductETags.of(createdProduct)).body(createdProduct);
     }
 
+    // If-Match makes the update conditional on the version the client last saw: 412 when it has changed since.
+    // The weak tag from a GET is accepted as is; only the version inside it is compared.
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponseDTO> updateProduct(@PathVariable Long id,
-                                                            @Valid @RequestBody ProductRequestDTO productRequest) {
-        ProductResponseDTO updatedProduct = productService.updateProduct(id, productRequest);
-        return ResponseEntity.ok(updatedProduct);
+                                                            @Valid @RequestBody ProductRequestDTO productRequest,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductResponseDTO updatedProduct = productService.updateProduct(id, productRequest,
+                ProductETags.expectedVersions(id, ifMatch));
+        return ResponseEntity.ok().eTag(ProductETags.of(updatedProduct)).body(updatedProduct);
     }
 
     @GetMapping
@@ -53,50 +112,132 @@ public class ProductController {
             @PageableDefault(page = 0, size = 10, sort = "id", direction = Sort.Direction.DESC)
             Pageable pageable) {
         Page<ProductResponseDTO> page = productService.getAllProducts(pageable);
-        return ResponseEntity.ok(page);
+        return ResponseEntity.ok().eTag(ProductETags.of(page)).body(page);
+    }
+
+    // Cursor-based alternative to getAllProducts: cost per page does not grow with depth and no total is computed.
+    // sort/direction only apply to the first page; afterwards they are carried by the cursor.
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDTO<ProductResponseDTO>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "10") int size) {
+        CursorPageDTO<ProductResponseDTO> page = productService.scrollProducts(cursor, sort, direction, size);
+        return ResponseEntity.ok().eTag(ProductETags.of(page)).body(page);
+    }
+
+    // Change feed: committed writes in order, after the position the consumer has processed (0 to start).
+    // Poll with since=next until hasMore is false; 410 means the position is gone and the consumer must resync.
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangeFeedDTO> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                           @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(since, limit));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        productService.deleteProduct(id);
+    public ResponseEntity<Void> deleteProduct(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        productService.deleteProduct(id, ProductETags.expectedVersions(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/search")
     public ResponseEntity<List<ProductResponseDTO>> searchProductsByName(@RequestParam String name) {
         List<ProductResponseDTO> products = productService.searchProductsByName(name);
-        return ResponseEntity.ok(products);
+        return conditional(products);
+    }
+
+    @GetMapping("/search/page")
+    public ResponseEntity<Page<ProductResponseDTO>> searchProducts(
+            @RequestParam String name,
+            @ParameterObject @PageableDefault(page = 0, size = 10) Pageable pageable) {
+        Page<ProductResponseDTO> page = productService.searchProducts(name, pageable);
+        return ResponseEntity.ok().eTag(ProductETags.of(page)).body(page);
+    }
+
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<ProductResponseDTO>> suggestProducts(@RequestParam String prefix,
+                                                                    @RequestParam(defaultValue = "10") int limit) {
+        return conditional(productService.suggestProducts(prefix, limit));
     }
 
     @GetMapping("/available")
     public ResponseEntity<List<ProductResponseDTO>> getAvailableProducts() {
         List<ProductResponseDTO> products = productService.getAvailableProducts();
-        return ResponseEntity.ok(products);
+        return conditional(products);
     }
 
     @GetMapping("/out-of-stock")
     public ResponseEntity<List<ProductResponseDTO>> getOutOfStockProducts() {
         List<ProductResponseDTO> products = productService.getOutOfStockProducts();
-        return ResponseEntity.ok(products);
+        return conditional(products);
     }
 
     @GetMapping("/price/less-than")
     public ResponseEntity<List<ProductResponseDTO>> getProductsCheaperThan(@RequestParam BigDecimal price) {
         List<ProductResponseDTO> products = productService.getProductsCheaperThan(price);
-        return ResponseEntity.ok(products);
+        return conditional(products);
     }
 
     @GetMapping("/price/more-than")
     public ResponseEntity<List<ProductResponseDTO>> getProductsMoreExpensiveThan(@RequestParam BigDecimal price) {
         List<ProductResponseDTO> products = productService.getProductsMoreExpensiveThan(price);
-        return ResponseEntity.ok(products);
+        return conditional(products);
     }
 
     @GetMapping("/price/between")
     public ResponseEntity<List<ProductResponseDTO>> getProductsByPriceRange(@RequestParam BigDecimal minPrice,
                                                                             @RequestParam BigDecimal maxPrice) {
         List<ProductResponseDTO> products = productService.getProductsByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(products);
+        return conditional(products);
+    }
+
+    // e.g. /filter?minPrice=10&maxPrice=50&inStock=true; every parameter is optional
+    @GetMapping("/filter")
+    public ResponseEntity<List<ProductResponseDTO>> filterProducts(@RequestParam(required = false) BigDecimal minPrice,
+                                                                   @RequestParam(required = false) BigDecimal maxPrice,
+                                                                   @RequestParam(required = false) Boolean inStock) {
+        List<ProductResponseDTO> products = productService.filterProducts(minPrice, maxPrice, inStock);
+        return conditional(products);
+    }
+
+    // Streaming variants (?stream=true): rows are written to the response as they are read (from the filter index,
+    // or from the database while it loads).
+    // NDJSON when the client accepts application/x-ndjson, otherwise a chunked JSON array.
+
+    @GetMapping(value = "/available", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAvailableProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return stream(accept, productService::streamAvailableProducts);
+    }
+
+    @GetMapping(value = "/out-of-stock", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamOutOfStockProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return stream(accept, productService::streamOutOfStockProducts);
+    }
+
+    @GetMapping(value = "/price/less-than", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamProductsCheaperThan(
+            @RequestParam BigDecimal price,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return stream(accept, consumer -> productService.streamProductsCheaperThan(price, consumer));
+    }
+
+    @GetMapping(value = "/price/more-than", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamProductsMoreExpensiveThan(
+            @RequestParam BigDecimal price,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return stream(accept, consumer -> productService.streamProductsMoreExpensiveThan(price, consumer));
+    }
+
+    @GetMapping(value = "/price/between", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamProductsByPriceRange(
+            @RequestParam BigDecimal minPrice,
+            @RequestParam BigDecimal maxPrice,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return stream(accept, consumer -> productService.streamProductsByPriceRange(minPrice, maxPrice, consumer));
     }
 
     @GetMapping("/count")
@@ -120,14 +261,108 @@ public class ProductController {
     @GetMapping("/most-expensive")
     public ResponseEntity<ProductResponseDTO> getMostExpensiveProduct() {
         return productService.getMostExpensiveProduct()
-                .map(ResponseEntity::ok)
+                .map(this::conditional)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/cheapest")
     public ResponseEntity<ProductResponseDTO> getCheapestProduct() {
         return productService.getCheapestProduct()
-                .map(ResponseEntity::ok)
+                .map(this::conditional)
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    // Bulk endpoints accept a JSON array or NDJSON (one item per line).
+    // Items are bound one by one so a malformed entry is reported in its result instead of rejecting the request.
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkOperationResponseDTO> createProducts(@RequestBody List<JsonNode> items) {
+        return ResponseEntity.ok(productBulkService.createProducts(readItems(items, ProductRequestDTO.class)));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkOperationResponseDTO> createProductsNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(productBulkService.createProducts(readNdjson(body, ProductRequestDTO.class)));
+    }
+
+    @PutMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkOperationResponseDTO> updateProducts(@RequestBody List<JsonNode> items) {
+        return ResponseEntity.ok(productBulkService.updateProducts(readItems(items, ProductBulkUpdateDTO.class)));
+    }
+
+    @PutMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkOperationResponseDTO> updateProductsNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(productBulkService.updateProducts(readNdjson(body, ProductBulkUpdateDTO.class)));
+    }
+
+    @DeleteMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkOperationResponseDTO> deleteProducts(@RequestBody List<JsonNode> items) {
+        return ResponseEntity.ok(productBulkService.deleteProducts(readItems(items, Long.class)));
+    }
+
+    @DeleteMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkOperationResponseDTO> deleteProductsNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(productBulkService.deleteProducts(readNdjson(body, Long.class)));
+    }
+
+    // Stock reservations: every line is applied or, on 409/404/400, none is
+
+    @PostMapping("/stock/reserve")
+    public ResponseEntity<List<ProductResponseDTO>> reserveStock(@Valid @RequestBody StockRequestDTO request) {
+        return ResponseEntity.ok(productStockService.reserveStock(request.getLines()));
+    }
+
+    @PostMapping("/stock/release")
+    public ResponseEntity<List<ProductResponseDTO>> releaseStock(@Valid @RequestBody StockRequestDTO request) {
+        return ResponseEntity.ok(productStockService.releaseStock(request.getLines()));
+    }
+
+    private ResponseEntity<ProductResponseDTO> conditional(ProductResponseDTO product) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(ProductETags.of(product));
+        if (product.getUpdatedAt() != null) {
+            response.lastModified(product.getUpdatedAt());
+        }
+        return response.body(product);
+    }
+
+    private ResponseEntity<List<ProductResponseDTO>> conditional(List<ProductResponseDTO> products) {
+        return ResponseEntity.ok().eTag(ProductETags.of(products)).body(products);
+    }
+
+    // Nothing is written before the first row, so a failure while opening the query still gets a proper error response
+    private ResponseEntity<StreamingResponseBody> stream(String accept, Consumer<Consumer<ProductResponseDTO>> source) {
+        boolean ndjson = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            boolean[] empty = {true};
+            source.accept(product -> {
+                try {
+                    if (!ndjson) {
+                        outputStream.write(empty[0] ? '[' : ',');
+                    }
+                    outputStream.write(objectMapper.writeValueAsBytes(product));
+                    if (ndjson) {
+                        outputStream.write('\n');
+                    }
+                    empty[0] = false;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            if (!ndjson) {
+                outputStream.write(empty[0] ? "[]".getBytes(StandardCharsets.UTF_8) : new byte[]{']'});
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private <T> List<T> readItems(List<JsonNode> nodes, Class<T> type) {
+        return BulkItems.fromJson(objectMapper, nodes, type);
+    }
+
+    private <T> List<T> readNdjson(InputStream body, Class<T> type) throws IOException {
+        return BulkItems.fromNdjson(objectMapper,
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), type);
+    }
+}
@@ -0,0 +1,107 @@
+package dev.francode.microservice.product.controller;
+
+import dev.francode.microservice.product.dto.CursorPageDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.exception.PreconditionFailedException;
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Validators built from ids and versions, so they are known before any serialization happens.
+// Every write bumps the version, so equal tags mean the same content. They are weak: the same content goes out
+// as JSON, CBOR or Smile, gzipped or not, and a strong tag would also stop Tomcat from compressing the response.
+final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    static String of(ProductResponseDTO product) {
+        return "W/\"" + product.getId() + "-" + product.getVersion() + "\"";
+    }
+
+    static String of(List<ProductResponseDTO> products) {
+        return digest(products, new StringBuilder());
+    }
+
+    static String of(Page<ProductResponseDTO> page) {
+        StringBuilder extra = new StringBuilder()
+                .append(page.getNumber()).append('/').append(page.getSize()).append('/')
+                .append(page.getTotalElements()).append('/').append(page.getSort());
+        return digest(page.getContent(), extra);
+    }
+
+    static String of(CursorPageDTO<ProductResponseDTO> page) {
+        StringBuilder extra = new StringBuilder()
+                .append(page.getSize()).append('/').append(page.isHasNext()).append('/').append(page.getNextCursor());
+        return digest(page.getContent(), extra);
+    }
+
+    // Versions the client accepts from If-Match: null when the header is absent or "*".
+    // The header may list several tags ("5-3", "5-4"); the write goes ahead if any of them is current. Only our own
+    // "<id>-<version>" tags count; a list without one (foreign, stale id) fails the precondition.
+    // The weak marker is ignored: the version in the tag is exactly what the optimistic check compares.
+    static Set<Long> expectedVersions(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String prefix = "\"" + id + "-";
+        Set<Long> versions = new LinkedHashSet<>();
+        for (String entry : splitTags(ifMatch)) {
+            if (entry.equals("*")) {
+                return null;
+            }
+            String tag = entry.startsWith("W/") ? entry.substring(2) : entry;
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    versions.add(Long.parseLong(tag.substring(prefix.length(), tag.length() - 1)));
+                } catch (NumberFormatException ex) {
+                    // not one of ours, like any other foreign tag
+                }
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("If-Match " + ifMatch.trim() + " does not match product with ID: "
+                    + id);
+        }
+        return versions;
+    }
+
+    // Entries of an entity-tag list; a comma only separates them outside quotes
+    private static List<String> splitTags(String header) {
+        List<String> entries = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < header.length(); i++) {
+            char c = header.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                addTag(entries, header.substring(start, i));
+                start = i + 1;
+            }
+        }
+        addTag(entries, header.substring(start));
+        return entries;
+    }
+
+    private static void addTag(List<String> entries, String entry) {
+        String tag = entry.trim();
+        if (!tag.isEmpty()) {
+            entries.add(tag);
+        }
+    }
+
+    private static String digest(List<ProductResponseDTO> products, StringBuilder extra) {
+        StringBuilder source = new StringBuilder(products.size() * 12 + extra.length() + 1);
+        for (ProductResponseDTO product : products) {
+            source.append(product.getId()).append('-').append(product.getVersion()).append(',');
+        }
+        source.append('|').append(extra);
+        return "W/\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,316 @@
+package dev.francode.microservice.product.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.francode.microservice.product.dto.BulkOperationResponseDTO;
+import dev.francode.microservice.product.dto.CursorPageDTO;
+import dev.francode.microservice.product.dto.ProductChangeFeedDTO;
+import dev.francode.microservice.product.dto.ProductBulkUpdateDTO;
+import dev.francode.microservice.product.dto.ProductLookupRequestDTO;
+import dev.francode.microservice.product.dto.ProductLookupResponseDTO;
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.dto.StockRequestDTO;
+import dev.francode.microservice.product.service.interfaces.ProductBulkService;
+import dev.francode.microservice.product.service.interfaces.ProductChangeFeedService;
+import dev.francode.microservice.product.service.interfaces.ProductStockService;
+import dev.francode.microservice.product.service.interfaces.ReactiveProductService;
+import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+// Reactive stack (profile "reactive"): the same /api/products API as ProductController, served by WebFlux.
+// Reads and single-product writes go through R2DBC end to end. Bulk and stock operations are still
+// JDBC batches/transactions and run on the bounded elastic scheduler, off the event loop.
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/products")
+public class ReactiveProductController {
+    private final ReactiveProductService productService;
+    private final ProductBulkService productBulkService;
+    private final ProductStockService productStockService;
+    private final ProductChangeFeedService changeFeedService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ReactiveProductController(ReactiveProductService productService,
+                                     ProductBulkService productBulkService,
+                                     ProductStockService productStockService,
+                                     ProductChangeFeedService changeFeedService,
+                                     ObjectMapper objectMapper) {
+        this.productService = productService;
+        this.productBulkService = productBulkService;
+        this.productStockService = productStockService;
+        this.changeFeedService = changeFeedService;
+        this.objectMapper = objectMapper;
+    }
+
+    // As in ProductController, GETs carry a weak ETag and WebFlux answers a matching If-None-Match with 304
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponseDTO>> getProductById(@PathVariable Long id) {
+        return productService.getProductById(id)
+                .map(this::conditional)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Multi-get, as in ProductController
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<ProductLookupResponseDTO>> getProductsByIds(@RequestParam List<Long> ids) {
+        return productService.getProductsByIds(ids)
+                .map(lookup -> ResponseEntity.ok().eTag(ProductETags.of(lookup.getProducts())).body(lookup));
+    }
+
+    @PostMapping("/lookup")
+    public Mono<ResponseEntity<ProductLookupResponseDTO>> lookupProducts(@Valid @RequestBody ProductLookupRequestDTO request) {
+        return productService.getProductsByIds(request.getIds()).map(ResponseEntity::ok);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<ProductResponseDTO>> createProduct(@Valid @RequestBody ProductRequestDTO productRequest) {
+        return productService.createProduct(productRequest)
+                .map(createdProduct -> ResponseEntity.status(HttpStatus.CREATED)
+                        .eTag(ProductETags.of(createdProduct))
+                        .body(createdProduct));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponseDTO>> updateProduct(@PathVariable Long id,
+                                                                  @Valid @RequestBody ProductRequestDTO productRequest,
+                                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return productService.updateProduct(id, productRequest, ProductETags.expectedVersions(id, ifMatch))
+                .map(updatedProduct -> ResponseEntity.ok().eTag(ProductETags.of(updatedProduct)).body(updatedProduct));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<ProductResponseDTO>>> getAllProducts(
+            @ParameterObject
+            @PageableDefault(page = 0, size = 10, sort = "id", direction = Sort.Direction.DESC)
+            Pageable pageable) {
+        return productService.getAllProducts(pageable)
+                .map(page -> ResponseEntity.ok().eTag(ProductETags.of(page)).body(page));
+    }
+
+    @GetMapping("/scroll")
+    public Mono<ResponseEntity<CursorPageDTO<ProductResponseDTO>>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "10") int size) {
+        return productService.scrollProducts(cursor, sort, direction, size)
+                .map(page -> ResponseEntity.ok().eTag(ProductETags.of(page)).body(page));
+    }
+
+    // Change feed, same contract as in ProductController; it reads the outbox through JPA
+    @GetMapping("/changes")
+    public Mono<ResponseEntity<ProductChangeFeedDTO>> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                                 @RequestParam(defaultValue = "100") int limit) {
+        return blocking(() -> changeFeedService.getChanges(since, limit));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteProduct(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return productService.deleteProduct(id, ProductETags.expectedVersions(id, ifMatch))
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<ProductResponseDTO>>> searchProductsByName(@RequestParam String name) {
+        return conditional(productService.searchProductsByName(name));
+    }
+
+    @GetMapping("/search/page")
+    public Mono<ResponseEntity<Page<ProductResponseDTO>>> searchProducts(
+            @RequestParam String name,
+            @ParameterObject @PageableDefault(page = 0, size = 10) Pageable pageable) {
+        return productService.searchProducts(name, pageable)
+                .map(page -> ResponseEntity.ok().eTag(ProductETags.of(page)).body(page));
+    }
+
+    @GetMapping("/search/suggest")
+    public Mono<ResponseEntity<List<ProductResponseDTO>>> suggestProducts(@RequestParam String prefix,
+                                                                          @RequestParam(defaultValue = "10") int limit) {
+        return conditional(productService.suggestProducts(prefix, limit));
+    }
+
+    @GetMapping("/available")
+    public Mono<ResponseEntity<List<ProductResponseDTO>>> getAvailableProducts() {
+        return conditional(productService.getAvailableProducts());
+    }
+
+    @GetMapping("/out-of-stock")
+    public Mono<ResponseEntity<List<ProductResponseDTO>>> getOutOfStockProducts() {
+        return conditional(productService.getOutOfStockProducts());
+    }
+
+    @GetMapping("/price/less-than")
+    public Mono<ResponseEntity<List<ProductResponseDTO>>> getProductsCheaperThan(@RequestParam BigDecimal price) {
+        return conditional(productService.getProductsCheaperThan(price));
+    }
+
+    @GetMapping("/price/more-than")
+    public Mono<ResponseEntity<List<ProductResponseDTO>>> getProductsMoreExpensiveThan(@RequestParam BigDecimal price) {
+        return conditional(productService.getProductsMoreExpensiveThan(price));
+    }
+
+    @GetMapping("/price/between")
+    public Mono<ResponseEntity<List<ProductResponseDTO>>> getProductsByPriceRange(@RequestParam BigDecimal minPrice,
+                                                                                  @RequestParam BigDecimal maxPrice) {
+        return conditional(productService.getProductsByPriceRange(minPrice, maxPrice));
+    }
+
+    // e.g. /filter?minPrice=10&maxPrice=50&inStock=true; every parameter is optional
+    @GetMapping("/filter")
+    public Mono<ResponseEntity<List<ProductResponseDTO>>> filterProducts(@RequestParam(required = false) BigDecimal minPrice,
+                                                                         @RequestParam(required = false) BigDecimal maxPrice,
+                                                                         @RequestParam(required = false) Boolean inStock) {
+        return conditional(productService.filterProducts(minPrice, maxPrice, inStock));
+    }
+
+    // Streaming variants (?stream=true): the Flux is written as rows arrive, and rows are only requested from the
+    // database as fast as the client reads. NDJSON when the client accepts application/x-ndjson, otherwise a JSON array.
+
+    @GetMapping(value = "/available", params = "stream=true", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductResponseDTO> streamAvailableProducts() {
+        return productService.getAvailableProducts();
+    }
+
+    @GetMapping(value = "/out-of-stock", params = "stream=true", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductResponseDTO> streamOutOfStockProducts() {
+        return productService.getOutOfStockProducts();
+    }
+
+    @GetMapping(value = "/price/less-than", params = "stream=true", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductResponseDTO> streamProductsCheaperThan(@RequestParam BigDecimal price) {
+        return productService.getProductsCheaperThan(price);
+    }
+
+    @GetMapping(value = "/price/more-than", params = "stream=true", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductResponseDTO> streamProductsMoreExpensiveThan(@RequestParam BigDecimal price) {
+        return productService.getProductsMoreExpensiveThan(price);
+    }
+
+    @GetMapping(value = "/price/between", params = "stream=true", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductResponseDTO> streamProductsByPriceRange(@RequestParam BigDecimal minPrice,
+                                                               @RequestParam BigDecimal maxPrice) {
+        return productService.getProductsByPriceRange(minPrice, maxPrice);
+    }
+
+    @GetMapping("/count")
+    public Mono<ResponseEntity<Long>> countAllProducts() {
+        return productService.countAllProducts().map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/count/available")
+    public Mono<ResponseEntity<Long>> countAvailableProducts() {
+        return productService.countAvailableProducts().map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/count/search")
+    public Mono<ResponseEntity<Long>> countProductsByName(@RequestParam String name) {
+        return productService.countProductsByName(name).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/most-expensive")
+    public Mono<ResponseEntity<ProductResponseDTO>> getMostExpensiveProduct() {
+        return productService.getMostExpensiveProduct()
+                .map(this::conditional)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/cheapest")
+    public Mono<ResponseEntity<ProductResponseDTO>> getCheapestProduct() {
+        return productService.getCheapestProduct()
+                .map(this::conditional)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Bulk endpoints accept a JSON array or NDJSON (one item per line), bound item by item as in ProductController
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<BulkOperationResponseDTO>> createProducts(@RequestBody List<JsonNode> items) {
+        return blocking(() -> productBulkService.createProducts(
+                BulkItems.fromJson(objectMapper, items, ProductRequestDTO.class)));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<BulkOperationResponseDTO>> createProductsNdjson(@RequestBody Mono<String> body) {
+        return body.defaultIfEmpty("").flatMap(lines -> blocking(() -> productBulkService.createProducts(
+                BulkItems.fromNdjson(objectMapper, new BufferedReader(new StringReader(lines)), ProductRequestDTO.class))));
+    }
+
+    @PutMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<BulkOperationResponseDTO>> updateProducts(@RequestBody List<JsonNode> items) {
+        return blocking(() -> productBulkService.updateProducts(
+                BulkItems.fromJson(objectMapper, items, ProductBulkUpdateDTO.class)));
+    }
+
+    @PutMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<BulkOperationResponseDTO>> updateProductsNdjson(@RequestBody Mono<String> body) {
+        return body.defaultIfEmpty("").flatMap(lines -> blocking(() -> productBulkService.updateProducts(
+                BulkItems.fromNdjson(objectMapper, new BufferedReader(new StringReader(lines)), ProductBulkUpdateDTO.class))));
+    }
+
+    @DeleteMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<BulkOperationResponseDTO>> deleteProducts(@RequestBody List<JsonNode> items) {
+        return blocking(() -> productBulkService.deleteProducts(BulkItems.fromJson(objectMapper, items, Long.class)));
+    }
+
+    @DeleteMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<BulkOperationResponseDTO>> deleteProductsNdjson(@RequestBody Mono<String> body) {
+        return body.defaultIfEmpty("").flatMap(lines -> blocking(() -> productBulkService.deleteProducts(
+                BulkItems.fromNdjson(objectMapper, new BufferedReader(new StringReader(lines)), Long.class))));
+    }
+
+    // Stock reservations: every line is applied or, on 409/404/400, none is
+
+    @PostMapping("/stock/reserve")
+    public Mono<ResponseEntity<List<ProductResponseDTO>>> reserveStock(@Valid @RequestBody StockRequestDTO request) {
+        return blocking(() -> productStockService.reserveStock(request.getLines()));
+    }
+
+    @PostMapping("/stock/release")
+    public Mono<ResponseEntity<List<ProductResponseDTO>>> releaseStock(@Valid @RequestBody StockRequestDTO request) {
+        return blocking(() -> productStockService.releaseStock(request.getLines()));
+    }
+
+    private ResponseEntity<ProductResponseDTO> conditional(ProductResponseDTO product) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(ProductETags.of(product));
+        if (product.getUpdatedAt() != null) {
+            response.lastModified(product.getUpdatedAt());
+        }
+        return response.body(product);
+    }
+
+    private Mono<ResponseEntity<List<ProductResponseDTO>>> conditional(Flux<ProductResponseDTO> products) {
+        return products.collectList()
+                .map(list -> ResponseEntity.ok().eTag(ProductETags.of(list)).body(list));
+    }
+
+    // Runs a JDBC-backed service call on a thread that is allowed to block
+    private <T> Mono<ResponseEntity<T>> blocking(Callable<T> call) {
+        return Mono.fromCallable(call)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,39 @@
+package dev.francode.microservice.product.discovery;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.netflix.eureka.EurekaClientConfigBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+// Last-known registry view kept on disk; product.registry-snapshot.enabled=false leaves the Eureka client without
+// a fallback, as before
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "product.registry-snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class RegistrySnapshotConfiguration {
+
+    // Applied to the client config before the Eureka client is built from it and makes its first fetch
+    @Bean
+    public static BeanPostProcessor registrySnapshotBackupPostProcessor(
+            @Value("${product.registry-snapshot.file:snapshots/microservice-product-registry.json.gz}") Path file) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof EurekaClientConfigBean config) {
+                    RegistrySnapshotBackup.useFile(file);
+                    config.setBackupRegistryImpl(RegistrySnapshotBackup.class.getName());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public RegistrySnapshotWriter registrySnapshotWriter(
+            @Value("${product.registry-snapshot.file:snapshots/microservice-product-registry.json.gz}") Path file) {
+        return new RegistrySnapshotWriter(file);
+    }
+}
@@ -0,0 +1,20 @@
+package dev.francode.microservice.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDTO {
+    // Position of the item in the request body (0-based)
+    private int index;
+    private Long id;
+    private BulkItemStatus status;
+    private Map<String, String> errors;
+}
@@ -0,0 +1,8 @@
+package dev.francode.microservice.product.dto;
+
+public enum BulkItemStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    FAILED
+}
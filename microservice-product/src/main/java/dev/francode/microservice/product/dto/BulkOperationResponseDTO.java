@@ -0,0 +1,19 @@
+package dev.francode.microservice.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResponseDTO {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResultDTO> results;
+}
@@ -0,0 +1,13 @@
+package dev.francode.microservice.product.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ProductBulkUpdateDTO extends ProductRequestDTO {
+
+    @NotNull(message = "Id is required.")
+    private Long id;
+}
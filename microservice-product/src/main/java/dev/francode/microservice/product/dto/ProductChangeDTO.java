@@ -0,0 +1,29 @@
+package dev.francode.microservice.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import dev.francode.microservice.product.event.ProductChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// One entry of the product change feed, as served by /api/products/changes and sent by the outbox relay
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeDTO {
+    // Place in the feed; strictly increasing, never reused
+    private Long position;
+    private Long productId;
+    private ProductChangeType type;
+    // Product version after the change; null for DELETED
+    private Long version;
+    private Instant changedAt;
+    // The product after the change, same shape as GET /api/products/{id}; null for DELETED.
+    // Stored as JSON by the outbox and written out as is.
+    @JsonRawValue
+    private String product;
+}
@@ -0,0 +1,21 @@
+package dev.francode.microservice.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeFeedDTO {
+    private List<ProductChangeDTO> changes;
+    private int size;
+    // More changes are already available past this page
+    private boolean hasMore;
+    // Position to pass as since= on the next call; equals since when the page is empty
+    private long next;
+}
@@ -0,0 +1,19 @@
+package dev.francode.microservice.product.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductLookupRequestDTO {
+
+    @NotEmpty(message = "At least one product ID is required.")
+    private List<Long> ids;
+}
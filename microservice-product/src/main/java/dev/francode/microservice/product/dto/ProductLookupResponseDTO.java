@@ -0,0 +1,19 @@
+package dev.francode.microservice.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductLookupResponseDTO {
+    // Found products, in the order their ids were requested; a repeated id appears once
+    private List<ProductResponseDTO> products;
+    // Requested ids with no product, in request order
+    private List<Long> missing;
+}
@@ -1,16 +1,23 @@
 package dev.francode.microservice.product.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class ProductResponseDTO {
     private Long id;
     private String name;
     private String description;
     private int stock;
     private BigDecimal price;
+    private Long version;
+    private Instant updatedAt;
 }
@@ -0,0 +1,20 @@
+package dev.francode.microservice.product.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockRequestDTO {
+
+    @NotEmpty(message = "At least one stock line is required.")
+    private List<@Valid StockLineDTO> lines;
+}
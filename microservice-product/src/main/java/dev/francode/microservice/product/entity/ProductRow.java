@@ -0,0 +1,39 @@
+package dev.francode.microservice.product.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// R2DBC mapping of the product table for the reactive profile; Product remains the JPA mapping and Flyway owns the schema
+@Table("product")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRow {
+
+    // Assigned from product_seq before the insert (see ReactiveProductServiceImpl), so a null version marks a new row
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String description;
+
+    private int stock;
+
+    private BigDecimal price;
+
+    // Checked and bumped by every UPDATE/DELETE issued through the repository
+    @Version
+    private Long version;
+
+    private Instant updatedAt;
+}
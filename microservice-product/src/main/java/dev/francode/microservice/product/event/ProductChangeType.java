@@ -0,0 +1,7 @@
+package dev.francode.microservice.product.event;
+
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,36 @@
+package dev.francode.microservice.product.event;
+
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published by every write path of the product service, inside the writing transaction.
+// In-memory read models listen with @TransactionalEventListener so they only see committed changes.
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private final ProductChangeType type;
+    private final Long productId;
+    // State before the change; null for CREATED
+    private final ProductResponseDTO before;
+    // State after the change; null for DELETED
+    private final ProductResponseDTO after;
+
+    // Version the change leaves the product at; for DELETED the last version it had. Every write bumps it,
+    // so read models use it to drop events that arrive after a newer one (see ProductTombstones).
+    public long getVersion() {
+        return after != null ? after.getVersion() : before.getVersion();
+    }
+
+    public static ProductChangedEvent created(ProductResponseDTO after) {
+        return new ProductChangedEvent(ProductChangeType.CREATED, after.getId(), null, after);
+    }
+
+    public static ProductChangedEvent updated(ProductResponseDTO before, ProductResponseDTO after) {
+        return new ProductChangedEvent(ProductChangeType.UPDATED, after.getId(), before, after);
+    }
+
+    public static ProductChangedEvent deleted(ProductResponseDTO before) {
+        return new ProductChangedEvent(ProductChangeType.DELETED, before.getId(), before, null);
+    }
+}
@@ -0,0 +1,42 @@
+package dev.francode.microservice.product.event;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Recently deleted product ids, kept by the in-memory read models next to their stored versions.
+// ProductChangedEvents reach the read models after commit in arrival order, and two transactions on the same
+// product can deliver theirs out of order: an update that committed before a delete may arrive after it.
+// Ids are never reused, so any event for a tombstoned id other than the delete itself is stale. A tombstone only
+// has to outlive that reordering window; the periodic reconcile against the database corrects anything later.
+// Not thread-safe: guarded by the owning read model's lock.
+public class ProductTombstones {
+
+    private final long ttlNanos;
+    // Insertion order is expiry order, so expired entries are always at the head
+    private final Map<Long, Long> expiries = new LinkedHashMap<>();
+
+    public ProductTombstones(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public void add(long productId) {
+        long now = System.nanoTime();
+        expire(now);
+        expiries.remove(productId);
+        expiries.put(productId, now + ttlNanos);
+    }
+
+    public boolean contains(long productId) {
+        Long expiry = expiries.get(productId);
+        return expiry != null && expiry - System.nanoTime() > 0;
+    }
+
+    private void expire(long now) {
+        Iterator<Long> iterator = expiries.values().iterator();
+        while (iterator.hasNext() && iterator.next() - now <= 0) {
+            iterator.remove();
+        }
+    }
+}
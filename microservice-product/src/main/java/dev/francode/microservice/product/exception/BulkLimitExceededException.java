@@ -0,0 +1,7 @@
+package dev.francode.microservice.product.exception;
+
+public class BulkLimitExceededException extends RuntimeException {
+    public BulkLimitExceededException(String message) {
+        super(message);
+    }
+}
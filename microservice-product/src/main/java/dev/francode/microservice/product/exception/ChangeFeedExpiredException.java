@@ -0,0 +1,7 @@
+package dev.francode.microservice.product.exception;
+
+public class ChangeFeedExpiredException extends RuntimeException {
+    public ChangeFeedExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package dev.francode.microservice.product.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
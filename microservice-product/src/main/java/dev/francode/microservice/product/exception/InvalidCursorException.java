@@ -0,0 +1,7 @@
+package dev.francode.microservice.product.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
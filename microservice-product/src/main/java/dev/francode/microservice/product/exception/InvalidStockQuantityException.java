@@ -0,0 +1,7 @@
+package dev.francode.microservice.product.exception;
+
+public class InvalidStockQuantityException extends RuntimeException {
+    public InvalidStockQuantityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package dev.francode.microservice.product.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
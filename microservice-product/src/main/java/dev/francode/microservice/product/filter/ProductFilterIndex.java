@@ -0,0 +1,351 @@
+package dev.francode.microservice.product.filter;
+
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.event.ProductChangeType;
+import dev.francode.microservice.product.event.ProductChangedEvent;
+import dev.francode.microservice.product.event.ProductTombstones;
+import dev.francode.microservice.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Columnar in-memory projection answering the price and stock filters (below / above / between a price, in or out
+// of stock, and combinations) instead of the database. Every product has a slot holding its id, its price in cents
+// and its version; the rows themselves are not kept, callers load the ids they get back. The slots are also listed
+// in (price, id) order next to a sorted array of their prices, so a price range is two binary searches; the stock
+// condition is a bitset of the slots in stock, tested against the slots of that range. Loaded once the application
+// is ready, kept in sync from committed ProductChangedEvents (older than the stored version: dropped) and
+// reconciled periodically against the database.
+@Slf4j
+@Component
+public class ProductFilterIndex {
+
+    // Upper bound for converted prices, so one cent more still fits in a long
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE - 1);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ProductTombstones tombstones;
+
+    private Columns columns = new Columns();
+    // Changes committed while a load is running, replayed on top of the loaded rows
+    private List<ProductChangedEvent> pending;
+    private volatile boolean ready;
+
+    public ProductFilterIndex(ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${product.read-models.tombstone-ttl:PT10M}") Duration tombstoneTtl) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.tombstones = new ProductTombstones(tombstoneTtl);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Ids of the products priced from minCents to maxCents (both inclusive) in (price, id) order; inStock null for
+    // any stock
+    public long[] find(long minCents, long maxCents, Boolean inStock) {
+        lock.readLock().lock();
+        try {
+            return columns.find(minCents, maxCents, inStock);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Whether a product as loaded still satisfies a find; it may have changed after the index answered
+    public static boolean matches(ProductResponseDTO product, long minCents, long maxCents, Boolean inStock) {
+        long price = cents(product.getPrice());
+        return price >= minCents && price <= maxCents && (inStock == null || (product.getStock() > 0) == inStock);
+    }
+
+    // Smallest whole number of cents not below the price: price >= p is cents >= centsAtLeast(p)
+    public static long centsAtLeast(BigDecimal price) {
+        return toCents(price, RoundingMode.CEILING);
+    }
+
+    // Largest whole number of cents not above the price: price <= p is cents <= centsAtMost(p)
+    public static long centsAtMost(BigDecimal price) {
+        return toCents(price, RoundingMode.FLOOR);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload(false);
+    }
+
+    @Scheduled(fixedDelayString = "${product.filter-index.reconcile-interval:PT5M}",
+            initialDelayString = "${product.filter-index.reconcile-interval:PT5M}")
+    public void reconcile() {
+        reload(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            apply(columns, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reload(boolean reconciling) {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                // A load is already running
+                return;
+            }
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Columns loaded = new Columns();
+        try {
+            // Rows come in (price, id) order, so the columns are built in one pass with no sorting or shifting
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (var rows = productRepository.streamFilterRows()) {
+                    rows.forEach(row -> loaded.append(row.getId(), cents(row.getPrice()), row.getStock() > 0,
+                            row.getVersion()));
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Until a load succeeds the filters keep going to the database
+            log.error("Product filter index could not be loaded", ex);
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(event -> apply(loaded, event));
+            pending = null;
+            if (reconciling && (loaded.size != columns.size
+                    || loaded.inStock.cardinality() != columns.inStock.cardinality())) {
+                log.warn("Product filter index drift corrected: total {} -> {}, in stock {} -> {}",
+                        columns.size, loaded.size, columns.inStock.cardinality(), loaded.inStock.cardinality());
+            }
+            columns = loaded;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!reconciling) {
+            log.info("Product filter index loaded with {} products in {} ms",
+                    loaded.size, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Events older than what the columns hold, and any event after a product's delete, are dropped
+    private void apply(Columns target, ProductChangedEvent event) {
+        long productId = event.getProductId();
+        if (event.getType() == ProductChangeType.DELETED) {
+            tombstones.add(productId);
+            target.remove(productId);
+        } else if (!tombstones.contains(productId) && target.isOlder(productId, event.getVersion())) {
+            ProductResponseDTO after = event.getAfter();
+            target.put(productId, cents(after.getPrice()), after.getStock() > 0, event.getVersion());
+        }
+    }
+
+    // NUMERIC(10, 2): the database rounds a finer price half up
+    private static long cents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode rounding) {
+        BigDecimal cents = price.movePointRight(2).setScale(0, rounding);
+        return cents.compareTo(MAX_CENTS) > 0 ? MAX_CENTS.longValue() : cents.longValueExact();
+    }
+
+    // Slots are dense (0 until size): a removed product's slot is filled with the last one. A load appends the rows
+    // in posting order; single changes shift the sorted postings with one array copy. Reads only binary search and
+    // scan.
+    private static final class Columns {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private long[] cents = new long[INITIAL_CAPACITY];
+        private long[] versions = new long[INITIAL_CAPACITY];
+        // Slots with stock > 0
+        private final BitSet inStock = new BitSet();
+        private int size;
+
+        // Postings in (price, id) order: the price in cents and the slot of each
+        private long[] sortedCents = new long[INITIAL_CAPACITY];
+        private int[] sortedSlots = new int[INITIAL_CAPACITY];
+
+        // Adds a product priced at least as high as every one before it (same price: higher id)
+        void append(long id, long price, boolean available, long version) {
+            ensureCapacity(size + 1);
+            int slot = size;
+            ids[slot] = id;
+            cents[slot] = price;
+            versions[slot] = version;
+            inStock.set(slot, available);
+            sortedCents[slot] = price;
+            sortedSlots[slot] = slot;
+            slotById.put(id, slot);
+            size++;
+        }
+
+        // True when the product is not held or held at an earlier version
+        boolean isOlder(long id, long version) {
+            Integer slot = slotById.get(id);
+            return slot == null || versions[slot] < version;
+        }
+
+        void put(long id, long price, boolean available, long version) {
+            Integer existing = slotById.get(id);
+            int slot;
+            if (existing == null) {
+                ensureCapacity(size + 1);
+                slot = size;
+                ids[slot] = id;
+                insertPosting(price, id, slot, size);
+                slotById.put(id, slot);
+                size++;
+            } else {
+                slot = existing;
+                if (cents[slot] != price) {
+                    removePosting(search(cents[slot], id, size), size);
+                    insertPosting(price, id, slot, size - 1);
+                }
+            }
+            cents[slot] = price;
+            versions[slot] = version;
+            inStock.set(slot, available);
+        }
+
+        void remove(long id) {
+            Integer removed = slotById.remove(id);
+            if (removed == null) {
+                return;
+            }
+            int slot = removed;
+            removePosting(search(cents[slot], id, size), size);
+            int last = size - 1;
+            if (slot != last) {
+                ids[slot] = ids[last];
+                cents[slot] = cents[last];
+                versions[slot] = versions[last];
+                inStock.set(slot, inStock.get(last));
+                slotById.put(ids[slot], slot);
+                sortedSlots[search(cents[slot], ids[slot], last)] = slot;
+            }
+            inStock.clear(last);
+            size = last;
+        }
+
+        long[] find(long minCents, long maxCents, Boolean wantInStock) {
+            if (minCents > maxCents) {
+                return new long[0];
+            }
+            int from = firstAtLeast(minCents);
+            int to = maxCents == Long.MAX_VALUE ? size : firstAtLeast(maxCents + 1);
+            long[] found = new long[Math.max(0, to - from)];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                int slot = sortedSlots[i];
+                if (wantInStock == null || inStock.get(slot) == wantInStock) {
+                    found[count++] = ids[slot];
+                }
+            }
+            return count == found.length ? found : Arrays.copyOf(found, count);
+        }
+
+        // First posting priced at least minCents
+        private int firstAtLeast(long minCents) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedCents[mid] < minCents) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Position of the (price, id) posting among the first count, or -(insertion point) - 1 when absent
+        private int search(long price, long id, int count) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int order = sortedCents[mid] != price
+                        ? Long.compare(sortedCents[mid], price)
+                        : Long.compare(ids[sortedSlots[mid]], id);
+                if (order < 0) {
+                    low = mid + 1;
+                } else if (order > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private void insertPosting(long price, long id, int slot, int count) {
+            int position = -search(price, id, count) - 1;
+            System.arraycopy(sortedCents, position, sortedCents, position + 1, count - position);
+            System.arraycopy(sortedSlots, position, sortedSlots, position + 1, count - position);
+            sortedCents[position] = price;
+            sortedSlots[position] = slot;
+        }
+
+        private void removePosting(int position, int count) {
+            System.arraycopy(sortedCents, position + 1, sortedCents, position, count - position - 1);
+            System.arraycopy(sortedSlots, position + 1, sortedSlots, position, count - position - 1);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= ids.length) {
+                return;
+            }
+            int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+            ids = Arrays.copyOf(ids, grown);
+            cents = Arrays.copyOf(cents, grown);
+            versions = Arrays.copyOf(versions, grown);
+            sortedCents = Arrays.copyOf(sortedCents, grown);
+            sortedSlots = Arrays.copyOf(sortedSlots, grown);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package dev.francode.microservice.product.filter;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+// The columns ProductFilterIndex keeps of a product, selected without the name and description
+@Getter
+@AllArgsConstructor
+public class ProductFilterRow {
+    private final Long id;
+    private final BigDecimal price;
+    private final int stock;
+    private final Long version;
+}
@@ -0,0 +1,36 @@
+package dev.francode.microservice.product.instrumentation;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Per-request correlation id. The gateway assigns it and passes it in X-Correlation-Id; requests that reach the
+// service directly get one here. It is echoed on the response and kept in the MDC, so every JSON log line of the
+// request carries it next to the trace and span ids.
+public final class CorrelationId {
+
+    public static final String HEADER = "X-Correlation-Id";
+    public static final String MDC_KEY = "correlationId";
+
+    private static final int MAX_LENGTH = 64;
+
+    private CorrelationId() {
+    }
+
+    // The caller's id when it is short and plain enough to log as is, else a new random one
+    public static String resolve(String incoming) {
+        return isUsable(incoming) ? incoming : HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong());
+    }
+
+    private static boolean isUsable(String id) {
+        if (id == null || id.isEmpty() || id.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (!(Character.isLetterOrDigit(c) && c < 128) && c != '-' && c != '_' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
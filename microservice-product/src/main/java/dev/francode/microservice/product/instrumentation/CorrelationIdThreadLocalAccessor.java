@@ -0,0 +1,29 @@
+package dev.francode.microservice.product.instrumentation;
+
+import io.micrometer.context.ThreadLocalAccessor;
+import org.slf4j.MDC;
+
+// Bridges the correlation id between the Reactor context and the MDC; registered through
+// META-INF/services/io.micrometer.context.ThreadLocalAccessor
+public class CorrelationIdThreadLocalAccessor implements ThreadLocalAccessor<String> {
+
+    @Override
+    public Object key() {
+        return CorrelationId.MDC_KEY;
+    }
+
+    @Override
+    public String getValue() {
+        return MDC.get(CorrelationId.MDC_KEY);
+    }
+
+    @Override
+    public void setValue(String value) {
+        MDC.put(CorrelationId.MDC_KEY, value);
+    }
+
+    @Override
+    public void setValue() {
+        MDC.remove(CorrelationId.MDC_KEY);
+    }
+}
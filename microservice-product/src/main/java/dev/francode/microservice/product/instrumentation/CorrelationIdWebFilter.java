@@ -0,0 +1,24 @@
+package dev.francode.microservice.product.instrumentation;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// Reactive stack: the correlation id goes into the Reactor context, and CorrelationIdThreadLocalAccessor copies it
+// into the MDC on whichever thread runs the request next (spring.reactor.context-propagation=auto).
+public class CorrelationIdWebFilter implements WebFilter, Ordered {
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String correlationId = CorrelationId.resolve(exchange.getRequest().getHeaders().getFirst(CorrelationId.HEADER));
+        exchange.getResponse().getHeaders().set(CorrelationId.HEADER, correlationId);
+        return chain.filter(exchange).contextWrite(context -> context.put(CorrelationId.MDC_KEY, correlationId));
+    }
+}
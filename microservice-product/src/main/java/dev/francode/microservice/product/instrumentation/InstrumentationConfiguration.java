@@ -0,0 +1,81 @@
+package dev.francode.microservice.product.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Database-side instrumentation: per-request statement counts with N+1 detection (Hibernate StatementInspector),
+// a slow-query log with bound parameters and a sampled log of all statements (datasource-proxy around the pool).
+// Timers and histograms for endpoints, services, repositories and the Hikari pool are configured under
+// management.metrics in application.yml. Every request gets a correlation id in the MDC for the JSON logs.
+// Tracing: request spans come from the MVC/WebFlux observations; repository calls and JDBC statements add their
+// own spans below them, and only slow or failed traces are written out.
+@Configuration(proxyBeanMethods = false)
+public class InstrumentationConfiguration {
+
+    @Bean
+    public QueryCountingStatementInspector queryCountingStatementInspector() {
+        return new QueryCountingStatementInspector();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(QueryCountingStatementInspector inspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public CorrelationIdFilter correlationIdFilter() {
+        return new CorrelationIdFilter();
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public CorrelationIdWebFilter correlationIdWebFilter() {
+        return new CorrelationIdWebFilter();
+    }
+
+    // Servlet stack only; the reactive stack does not go through Hibernate for its request path
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public QueryCountFilter queryCountFilter(QueryCountingStatementInspector inspector,
+                                             MeterRegistry meterRegistry,
+                                             @Value("${product.instrumentation.repeated-statement-threshold:10}") int repeatThreshold) {
+        return new QueryCountFilter(inspector, meterRegistry, repeatThreshold);
+    }
+
+    // Static so the post-processor does not pull other beans in early
+    @Bean
+    public static ProxyDataSourcePostProcessor proxyDataSourcePostProcessor(
+            @Value("${product.instrumentation.slow-query-threshold-ms:100}") long thresholdMillis,
+            @Value("${product.instrumentation.sql-log-sample-rate:0.01}") double sqlLogSampleRate,
+            ObjectProvider<Tracer> tracer) {
+        return new ProxyDataSourcePostProcessor(thresholdMillis, sqlLogSampleRate, tracer);
+    }
+
+    @Bean
+    public RepositorySpanAspect repositorySpanAspect(Tracer tracer) {
+        return new RepositorySpanAspect(tracer);
+    }
+
+    // Picked up by the OpenTelemetry auto-configuration, behind its batch span processor
+    @Bean
+    public SpanExporter tailSamplingSpanExporter(
+            @Value("${product.tracing.file:traces/microservice-product.jsonl}") Path file,
+            @Value("${product.tracing.latency-threshold:500ms}") Duration latencyThreshold,
+            @Value("${product.tracing.max-pending-traces:10000}") int maxPendingTraces,
+            @Value("${product.tracing.max-pending-time:30s}") Duration maxPendingTime) {
+        return new TailSamplingSpanExporter(new JsonFileSpanExporter(file), latencyThreshold, maxPendingTraces,
+                maxPendingTime);
+    }
+}
@@ -0,0 +1,38 @@
+package dev.francode.microservice.product.instrumentation;
+
+import io.micrometer.tracing.Tracer;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+// Wraps every DataSource in a datasource-proxy that reports slow executions to SlowQueryListener, logs a sample
+// of all executions with SampledQueryLogListener and traces each statement with QuerySpanListener.
+// The proxy unwraps to the pool, so Hikari metrics and health checks still see HikariDataSource.
+public class ProxyDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final long thresholdMillis;
+    private final double sqlLogSampleRate;
+    private final ObjectProvider<Tracer> tracer;
+
+    public ProxyDataSourcePostProcessor(long thresholdMillis, double sqlLogSampleRate, ObjectProvider<Tracer> tracer) {
+        this.thresholdMillis = thresholdMillis;
+        this.sqlLogSampleRate = sqlLogSampleRate;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(new SlowQueryListener(thresholdMillis))
+                    .listener(new SampledQueryLogListener(sqlLogSampleRate))
+                    .listener(new QuerySpanListener(tracer))
+                    .build();
+        }
+        return bean;
+    }
+}
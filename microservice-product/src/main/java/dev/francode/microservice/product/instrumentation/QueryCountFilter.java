@@ -0,0 +1,61 @@
+package dev.francode.microservice.product.instrumentation;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Records how many SQL statements each request issued (product.db.statements, by method and uri pattern) and
+// flags likely N+1 patterns: the same statement prepared again and again within one request.
+// Work done after the response is handed off (StreamingResponseBody) runs on another thread and is not counted.
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryCountingStatementInspector inspector;
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+
+    public QueryCountFilter(QueryCountingStatementInspector inspector, MeterRegistry meterRegistry, int repeatThreshold) {
+        this.inspector = inspector;
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        inspector.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            record(request, inspector.end());
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryCountingStatementInspector.RequestQueries queries) {
+        // Same uri tag as http.server.requests: the handler pattern, never the raw path
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("product.db.statements")
+                .description("SQL statements prepared per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(queries.getTotal());
+
+        Map.Entry<String, Integer> repeated = queries.mostRepeated();
+        if (repeated != null && repeated.getValue() >= repeatThreshold) {
+            meterRegistry.counter("product.db.repeated.statements", "method", request.getMethod(), "uri", uri).increment();
+            log.warn("Possible N+1: {} {} prepared the same statement {} times ({} statements in total): {}",
+                    request.getMethod(), uri, repeated.getValue(), queries.getTotal(), repeated.getKey());
+        }
+    }
+}
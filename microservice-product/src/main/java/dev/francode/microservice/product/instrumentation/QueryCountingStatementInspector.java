@@ -0,0 +1,60 @@
+package dev.francode.microservice.product.instrumentation;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Counts the SQL statements Hibernate prepares on the current thread while a request is being tracked
+// (see QueryCountFilter). Statements are returned unchanged; outside a tracked request this is a ThreadLocal read.
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private final ThreadLocal<RequestQueries> current = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueries queries = current.get();
+        if (queries != null) {
+            queries.record(sql);
+        }
+        return sql;
+    }
+
+    public void begin() {
+        current.set(new RequestQueries());
+    }
+
+    // Stops tracking and returns what was counted since begin()
+    public RequestQueries end() {
+        RequestQueries queries = current.get();
+        current.remove();
+        return queries == null ? new RequestQueries() : queries;
+    }
+
+    public static class RequestQueries {
+
+        // Hibernate hands the same String instance for a given statement, so hashing is cheap
+        private final Map<String, Integer> bySql = new HashMap<>();
+        private int total;
+
+        void record(String sql) {
+            total++;
+            bySql.merge(sql, 1, Integer::sum);
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        // The statement prepared most often, with its count; null when nothing ran
+        public Map.Entry<String, Integer> mostRepeated() {
+            Map.Entry<String, Integer> top = null;
+            for (Map.Entry<String, Integer> entry : bySql.entrySet()) {
+                if (top == null || entry.getValue() > top.getValue()) {
+                    top = entry;
+                }
+            }
+            return top;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package dev.francode.microservice.product.instrumentation;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+// One span per JDBC execution, child of whatever span is current: the repository call, else the request.
+// Spans only; statement counts and timings are already metered by QueryCountFilter and the Hikari/Hibernate meters.
+public class QuerySpanListener implements QueryExecutionListener {
+
+    private static final String SPAN = QuerySpanListener.class.getName();
+    // Enough to recognise the statement; bound parameters are left out
+    private static final int MAX_STATEMENT_LENGTH = 1000;
+
+    private final ObjectProvider<Tracer> tracerProvider;
+    private volatile Tracer tracer;
+
+    public QuerySpanListener(ObjectProvider<Tracer> tracerProvider) {
+        this.tracerProvider = tracerProvider;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = tracer().nextSpan()
+                .name(execInfo.isBatch() ? "jdbc batch" : "jdbc query")
+                .remoteServiceName(execInfo.getDataSourceName())
+                .tag("db.statement", statement(queryInfoList))
+                .start();
+        if (execInfo.isBatch()) {
+            span.tag("db.batch.size", execInfo.getBatchSize());
+        }
+        execInfo.addCustomValue(SPAN, span);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = execInfo.getCustomValue(SPAN, Span.class);
+        if (span == null) {
+            return;
+        }
+        if (execInfo.getThrowable() != null) {
+            span.error(execInfo.getThrowable());
+        }
+        span.end();
+    }
+
+    // Resolved on first use: DataSources are wrapped before the tracing beans exist
+    private Tracer tracer() {
+        Tracer current = tracer;
+        if (current == null) {
+            current = tracerProvider.getIfAvailable(() -> Tracer.NOOP);
+            tracer = current;
+        }
+        return current;
+    }
+
+    private static String statement(List<QueryInfo> queryInfoList) {
+        String query = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        return query.length() > MAX_STATEMENT_LENGTH ? query.substring(0, MAX_STATEMENT_LENGTH) : query;
+    }
+}
@@ -0,0 +1,45 @@
+package dev.francode.microservice.product.instrumentation;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+
+// A span around each JPA repository call ("ProductRepository.findById"), so a trace groups the JDBC
+// statements under the repository method that issued them. The timings are already in spring.data.repository.invocations.
+// Reactive repositories are left out: their work happens on subscription, after the method has returned.
+@Aspect
+public class RepositorySpanAspect {
+
+    private final Tracer tracer;
+
+    public RepositorySpanAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..)) "
+            + "&& target(org.springframework.data.jpa.repository.JpaRepository)")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> repository = repositoryInterface(joinPoint);
+        Span span = tracer.nextSpan()
+                .name(repository.getSimpleName() + "." + joinPoint.getSignature().getName())
+                .tag("repository.interface", repository.getName())
+                .start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    // The application interface (ProductRepository), not the Spring Data one declaring the method (CrudRepository)
+    private static Class<?> repositoryInterface(ProceedingJoinPoint joinPoint) {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+        return interfaces.length > 0 ? interfaces[0] : joinPoint.getSignature().getDeclaringType();
+    }
+}
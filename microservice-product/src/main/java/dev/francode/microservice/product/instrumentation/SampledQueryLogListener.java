@@ -0,0 +1,50 @@
+package dev.francode.microservice.product.instrumentation;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+// Replaces show-sql: logs a random sample of JDBC executions, with statement, parameters and elapsed time as
+// JSON fields. The rate bounds the volume at any load; the logger (dev.francode.microservice.product.sql) can be
+// switched off, or on for a moment, through /actuator/loggers without a restart.
+@Slf4j(topic = "dev.francode.microservice.product.sql")
+public class SampledQueryLogListener implements QueryExecutionListener {
+
+    private final double sampleRate;
+
+    public SampledQueryLogListener(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (sampleRate <= 0 || !log.isInfoEnabled() || queryInfoList.isEmpty()
+                || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        QueryInfo query = queryInfoList.get(0);
+        // Batches log the first set of parameters only
+        List<Object> parameters = query.getParametersList().isEmpty() ? List.of()
+                : query.getParametersList().get(0).stream().map(SampledQueryLogListener::value).toList();
+        log.info("SQL sample", kv("sql", query.getQuery()), kv("params", parameters),
+                kv("elapsedMs", execInfo.getElapsedTime()), kv("batchSize", execInfo.getBatchSize()),
+                kv("success", execInfo.isSuccess()));
+    }
+
+    // setXxx(index, value, ...): the value is the second argument
+    private static Object value(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        return args.length > 1 ? args[1] : null;
+    }
+}
@@ -0,0 +1,33 @@
+package dev.francode.microservice.product.instrumentation;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+
+import java.util.List;
+
+// Logs JDBC executions slower than the threshold with their bound parameters. The check runs once the
+// statement has returned, so fast statements cost a comparison and nothing is scheduled per query.
+@Slf4j
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private final long thresholdMillis;
+    private final DefaultQueryLogEntryCreator entryCreator = new DefaultQueryLogEntryCreator();
+
+    public SlowQueryListener(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() >= thresholdMillis && log.isWarnEnabled()) {
+            log.warn("Slow query: {}", entryCreator.getLogEntry(execInfo, queryInfoList, false, true, false));
+        }
+    }
+}
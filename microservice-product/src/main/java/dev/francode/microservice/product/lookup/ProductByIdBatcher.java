@@ -0,0 +1,144 @@
+package dev.francode.microservice.product.lookup;
+
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.repository.ProductRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Coalesces concurrent single-product lookups into one IN query, DataLoader-style.
+// A lookup that finds no other one in flight is loaded at once, so an uncontended cache miss pays no window.
+// Otherwise the first lookup to arrive opens a batch and waits out the window; lookups arriving meanwhile join it,
+// and the opener then loads every id of the batch with one query and completes each waiting caller. A batch that
+// fills up before the window ends is loaded right away by the caller that filled it.
+// Queries run on the callers' own threads, so there is no pool to size; a zero window turns coalescing off.
+// The lock is a ReentrantLock rather than a monitor, so virtual threads are not pinned while they wait for it.
+@Component
+public class ProductByIdBatcher {
+
+    private final ProductRepository productRepository;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    // Lookups answered per query; stays at 1 when there is nothing to coalesce
+    private final DistributionSummary batchSizes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Batch new lookups join; null until the next lookup opens one
+    private Batch open;
+    // Lookups between entering load() and getting their result
+    private int inFlight;
+
+    public ProductByIdBatcher(ProductRepository productRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${product.lookup.batch-window:PT0.002S}") Duration window,
+                              @Value("${product.lookup.max-batch-size:100}") int maxBatchSize) {
+        this.productRepository = productRepository;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.batchSizes = DistributionSummary.builder("product.lookup.batch.size")
+                .description("Product lookups by id answered by one repository query")
+                .register(meterRegistry);
+    }
+
+    public Optional<ProductResponseDTO> load(Long id) {
+        if (windowNanos <= 0) {
+            batchSizes.record(1);
+            return productRepository.findViewById(id);
+        }
+
+        Batch batch;
+        CompletableFuture<Optional<ProductResponseDTO>> result;
+        boolean opened;
+        boolean closed;
+        lock.lock();
+        try {
+            inFlight++;
+            opened = open == null;
+            if (opened) {
+                open = new Batch();
+            }
+            batch = open;
+            // Concurrent lookups of the same id share one slot
+            result = batch.lookups.computeIfAbsent(id, key -> new CompletableFuture<>());
+            // Alone: nothing to wait for. Full: nothing more can join.
+            closed = (opened && inFlight == 1) || batch.lookups.size() >= maxBatchSize;
+            if (closed) {
+                open = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            if (closed) {
+                execute(batch);
+            } else if (opened) {
+                LockSupport.parkNanos(windowNanos);
+                lock.lock();
+                try {
+                    // Still open unless another caller filled it in the meantime and loaded it itself
+                    closed = open == batch;
+                    if (closed) {
+                        open = null;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (closed) {
+                    execute(batch);
+                }
+            }
+            return await(result);
+        } finally {
+            lock.lock();
+            try {
+                inFlight--;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Runs once per batch, after it has been closed; no lookup can join it any more
+    private void execute(Batch batch) {
+        try {
+            Map<Long, ProductResponseDTO> found = productRepository.findViewsByIdIn(batch.lookups.keySet()).stream()
+                    .collect(Collectors.toMap(ProductResponseDTO::getId, Function.identity()));
+            batchSizes.record(batch.lookups.size());
+            batch.lookups.forEach((id, lookup) -> lookup.complete(Optional.ofNullable(found.get(id))));
+        } catch (Throwable ex) {
+            // Every caller of the batch sees the failure, the executing one included
+            batch.lookups.values().forEach(lookup -> lookup.completeExceptionally(ex));
+        }
+    }
+
+    private Optional<ProductResponseDTO> await(CompletableFuture<Optional<ProductResponseDTO>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private static final class Batch {
+        private final Map<Long, CompletableFuture<Optional<ProductResponseDTO>>> lookups = new LinkedHashMap<>();
+    }
+}
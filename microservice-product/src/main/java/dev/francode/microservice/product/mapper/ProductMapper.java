@@ -3,6 +3,7 @@ package dev.francode.microservice.product.mapper;
 import dev.francode.microservice.product.dto.ProductRequestDTO;
 import dev.francode.microservice.product.dto.ProductResponseDTO;
 import dev.francode.microservice.product.entity.Product;
+import dev.francode.microservice.product.entity.ProductRow;
 
 public class ProductMapper {
 
@@ -18,6 +19,13 @@ public class ProductMapper {
         return product;
     }
 
+    public static void updateEntity(Product entity, ProductRequestDTO dto) {
+        entity.setName(dto.getName());
+        entity.setDescription(dto.getDescription());
+        entity.setStock(dto.getStock());
+        entity.setPrice(dto.getPrice());
+    }
+
     public static ProductResponseDTO toResponseDto(Product entity) {
         if (entity == null) {
             return null;
@@ -28,6 +36,35 @@ public class ProductMapper {
         dto.setDescription(entity.getDescription());
         dto.setStock(entity.getStock());
         dto.setPrice(entity.getPrice());
+        dto.setVersion(entity.getVersion());
+        dto.setUpdatedAt(entity.getUpdatedAt());
         return dto;
     }
-}
\ No newline at end of file
+
+    public static ProductRow toRow(ProductRequestDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        ProductRow row = new ProductRow();
+        row.setName(dto.getName());
+        row.setDescription(dto.getDescription());
+        row.setStock(dto.getStock());
+        row.setPrice(dto.getPrice());
+        return row;
+    }
+
+    public static void updateRow(ProductRow row, ProductRequestDTO dto) {
+        row.setName(dto.getName());
+        row.setDescription(dto.getDescription());
+        row.setStock(dto.getStock());
+        row.setPrice(dto.getPrice());
+    }
+
+    public static ProductResponseDTO toResponseDto(ProductRow row) {
+        if (row == null) {
+            return null;
+        }
+        return new ProductResponseDTO(row.getId(), row.getName(), row.getDescription(), row.getStock(),
+                row.getPrice(), row.getVersion(), row.getUpdatedAt());
+    }
+}
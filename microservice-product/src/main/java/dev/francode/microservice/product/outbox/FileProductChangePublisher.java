@@ -0,0 +1,52 @@
+package dev.francode.microservice.product.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.francode.microservice.product.dto.ProductChangeDTO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Broker stand-in: appends every relayed change to a JSON-lines file, one write and flush per batch.
+// Selected with product.outbox.publisher=file (the default).
+public class FileProductChangePublisher implements ProductChangePublisher {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    // One append at a time; not a monitor, so a virtual thread does not pin its carrier during the file I/O
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileProductChangePublisher(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<ProductChangeDTO> changes) {
+        lock.lock();
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            StringBuilder lines = new StringBuilder(changes.size() * 256);
+            for (ProductChangeDTO change : changes) {
+                lines.append(objectMapper.writeValueAsString(change)).append('\n');
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(lines.toString());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append product changes to " + file, ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
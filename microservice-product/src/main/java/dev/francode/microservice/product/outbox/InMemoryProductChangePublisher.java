@@ -0,0 +1,39 @@
+package dev.francode.microservice.product.outbox;
+
+import dev.francode.microservice.product.dto.ProductChangeDTO;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Embedded broker stand-in for tests: keeps the last relayed changes in memory.
+// Selected with product.outbox.publisher=memory.
+public class InMemoryProductChangePublisher implements ProductChangePublisher {
+
+    private final int capacity;
+    private final Deque<ProductChangeDTO> changes = new ArrayDeque<>();
+
+    public InMemoryProductChangePublisher(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<ProductChangeDTO> batch) {
+        for (ProductChangeDTO change : batch) {
+            if (changes.size() == capacity) {
+                changes.removeFirst();
+            }
+            changes.addLast(change);
+        }
+    }
+
+    // Published changes, oldest first
+    public synchronized List<ProductChangeDTO> getChanges() {
+        return new ArrayList<>(changes);
+    }
+
+    public synchronized void clear() {
+        changes.clear();
+    }
+}
@@ -0,0 +1,46 @@
+package dev.francode.microservice.product.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.francode.microservice.product.repository.ProductChangeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Change-data stream for product writes: every write appends to the product_change outbox in its own transaction
+// (ProductChangeOutbox, ReactiveProductOutbox), the relay publishes committed rows in batches, and
+// /api/products/changes lets consumers tail the published changes by position.
+@Configuration(proxyBeanMethods = false)
+public class OutboxConfiguration {
+
+    @Bean
+    public ProductChangeRelay productChangeRelay(ProductChangeRepository changeRepository,
+                                                 ProductChangePublisher publisher,
+                                                 PlatformTransactionManager transactionManager,
+                                                 MeterRegistry meterRegistry,
+                                                 @Value("${product.outbox.batch-size:500}") int batchSize,
+                                                 @Value("${product.outbox.retention:P7D}") Duration retention) {
+        return new ProductChangeRelay(changeRepository, publisher, transactionManager, meterRegistry, batchSize,
+                retention);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "product.outbox.publisher", havingValue = "file", matchIfMissing = true)
+    public FileProductChangePublisher fileProductChangePublisher(
+            @Value("${product.outbox.file:outbox/product-changes.jsonl}") Path file,
+            ObjectMapper objectMapper) {
+        return new FileProductChangePublisher(file, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "product.outbox.publisher", havingValue = "memory")
+    public InMemoryProductChangePublisher inMemoryProductChangePublisher(
+            @Value("${product.outbox.memory-capacity:10000}") int capacity) {
+        return new InMemoryProductChangePublisher(capacity);
+    }
+}
@@ -0,0 +1,48 @@
+package dev.francode.microservice.product.outbox;
+
+import dev.francode.microservice.product.event.ProductChangeType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Outbox row for one product write (table product_change, see V4__product_change_outbox.sql)
+@Entity
+@Table(name = "product_change", indexes = {
+        @Index(name = "idx_product_change_position", columnList = "position", unique = true),
+        @Index(name = "idx_product_change_published_at", columnList = "published_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductChange {
+
+    // Pooled like Product.id, so the rows of a bulk write are inserted as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_change_seq")
+    @SequenceGenerator(name = "product_change_seq", sequenceName = "product_change_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ProductChangeType changeType;
+
+    private Long productVersion;
+
+    // ProductResponseDTO as JSON
+    @Column(length = 8000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Null until the relay has published the row
+    private Long position;
+
+    private Instant publishedAt;
+}
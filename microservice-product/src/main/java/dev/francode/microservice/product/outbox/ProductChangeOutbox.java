@@ -0,0 +1,50 @@
+package dev.francode.microservice.product.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.francode.microservice.product.event.ProductChangedEvent;
+import dev.francode.microservice.product.repository.ProductChangeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+// Appends an outbox row for every ProductChangedEvent of a JPA write (ProductServiceImpl, bulk and stock services).
+// Runs just before the writing transaction commits, so the row commits or rolls back with the change itself.
+// Events published outside a transaction are skipped: the reactive service writes its rows through ReactiveProductOutbox.
+@Component
+public class ProductChangeOutbox {
+
+    private final ProductChangeRepository changeRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ProductChangeOutbox(ProductChangeRepository changeRepository, ObjectMapper objectMapper) {
+        this.changeRepository = changeRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        changeRepository.save(toChange(event, objectMapper));
+    }
+
+    static ProductChange toChange(ProductChangedEvent event, ObjectMapper objectMapper) {
+        ProductChange change = new ProductChange();
+        change.setProductId(event.getProductId());
+        change.setChangeType(event.getType());
+        change.setCreatedAt(Instant.now());
+        if (event.getAfter() != null) {
+            change.setProductVersion(event.getAfter().getVersion());
+            try {
+                change.setPayload(objectMapper.writeValueAsString(event.getAfter()));
+            } catch (JsonProcessingException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return change;
+    }
+}
@@ -0,0 +1,13 @@
+package dev.francode.microservice.product.outbox;
+
+import dev.francode.microservice.product.dto.ProductChangeDTO;
+
+import java.util.List;
+
+// Destination of the outbox relay. A batch is published before the relay marks it as sent, so an exception
+// leaves the rows in the outbox and the batch is retried; consumers must tolerate duplicates (at-least-once).
+public interface ProductChangePublisher {
+
+    // Changes in position order
+    void publish(List<ProductChangeDTO> changes);
+}
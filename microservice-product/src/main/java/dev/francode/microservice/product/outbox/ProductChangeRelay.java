@@ -0,0 +1,119 @@
+package dev.francode.microservice.product.outbox;
+
+import dev.francode.microservice.product.dto.ProductChangeDTO;
+import dev.francode.microservice.product.repository.ProductChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Moves committed outbox rows to the ProductChangePublisher in batches.
+// Each batch is one transaction: the rows get the next feed positions, are handed to the publisher and are marked
+// as published when it commits. Positions are assigned here rather than at insert time, so a write that commits
+// late still lands after everything already in the feed and a consumer tailing by position never skips it.
+@Slf4j
+public class ProductChangeRelay {
+
+    private final ProductChangeRepository changeRepository;
+    private final ProductChangePublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private final Counter relayed;
+    // Write-to-publish delay per change
+    private final Timer lag;
+    // Held across JDBC and the publisher's I/O: a ReentrantLock rather than a monitor, so a virtual thread running
+    // the schedule does not pin its carrier
+    private final ReentrantLock draining = new ReentrantLock();
+
+    public ProductChangeRelay(ProductChangeRepository changeRepository,
+                              ProductChangePublisher publisher,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              int batchSize,
+                              Duration retention) {
+        this.changeRepository = changeRepository;
+        this.publisher = publisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.relayed = Counter.builder("product.outbox.relayed")
+                .description("Product changes handed to the publisher")
+                .register(meterRegistry);
+        this.lag = Timer.builder("product.outbox.lag")
+                .description("Time between a product write and the relay publishing it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Drains the outbox; a failed batch stays unpublished and is retried on the next run.
+    // A run that finds another one draining is skipped: that one picks up whatever is there.
+    @Scheduled(fixedDelayString = "${product.outbox.relay-interval:PT0.2S}",
+            initialDelayString = "${product.outbox.relay-interval:PT0.2S}")
+    public void relay() {
+        if (!draining.tryLock()) {
+            return;
+        }
+        try {
+            int sent;
+            do {
+                sent = relayBatch();
+            } while (sent == batchSize);
+        } catch (RuntimeException ex) {
+            log.warn("Product change relay failed, retrying on the next run", ex);
+        } finally {
+            draining.unlock();
+        }
+    }
+
+    // Published rows past the retention period; the newest one is kept so the feed position survives a quiet period
+    @Scheduled(fixedDelayString = "${product.outbox.cleanup-interval:PT1H}",
+            initialDelayString = "${product.outbox.cleanup-interval:PT1H}")
+    public void purge() {
+        Integer deleted = transactionTemplate.execute(status -> {
+            Long maxPosition = changeRepository.findMaxPosition();
+            return maxPosition == null ? 0
+                    : changeRepository.deletePublishedBefore(Instant.now().minus(retention), maxPosition);
+        });
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published product changes older than {}", deleted, retention);
+        }
+    }
+
+    private int relayBatch() {
+        Integer sent = transactionTemplate.execute(status -> {
+            List<ProductChange> batch = changeRepository.findUnpublished(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            Long maxPosition = changeRepository.findMaxPosition();
+            long position = maxPosition == null ? 0 : maxPosition;
+            Instant now = Instant.now();
+            List<ProductChangeDTO> changes = new ArrayList<>(batch.size());
+            for (ProductChange change : batch) {
+                change.setPosition(++position);
+                change.setPublishedAt(now);
+                changes.add(new ProductChangeDTO(change.getPosition(), change.getProductId(), change.getChangeType(),
+                        change.getProductVersion(), change.getCreatedAt(), change.getPayload()));
+            }
+            publisher.publish(changes);
+            for (ProductChange change : batch) {
+                lag.record(Duration.between(change.getCreatedAt(), now));
+            }
+            return batch.size();
+        });
+        int count = sent == null ? 0 : sent;
+        relayed.increment(count);
+        return count;
+    }
+}
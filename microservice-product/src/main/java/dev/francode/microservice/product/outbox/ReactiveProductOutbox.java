@@ -0,0 +1,55 @@
+package dev.francode.microservice.product.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.francode.microservice.product.event.ProductChangedEvent;
+import dev.francode.microservice.product.repository.ReactivePooledSequence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+// Outbox writes of the reactive profile. ReactiveProductServiceImpl appends inside its TransactionalOperator
+// pipeline, so the row is inserted on the same R2DBC connection and commits with the product change.
+@Component
+@Profile("reactive")
+public class ReactiveProductOutbox {
+
+    // Must match the product_change_seq increment and allocationSize on ProductChange.id
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final ReactivePooledSequence ids;
+
+    @Autowired
+    public ReactiveProductOutbox(DatabaseClient databaseClient, ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+        this.ids = new ReactivePooledSequence(() -> databaseClient.sql("SELECT NEXT VALUE FOR product_change_seq")
+                .map(row -> row.get(0, Long.class))
+                .one(), ID_ALLOCATION_SIZE);
+    }
+
+    public Mono<ProductChangedEvent> append(ProductChangedEvent event) {
+        return Mono.defer(() -> {
+            ProductChange change = ProductChangeOutbox.toChange(event, objectMapper);
+            return ids.next().flatMap(id -> {
+                DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("INSERT INTO product_change "
+                                + "(id, product_id, change_type, product_version, payload, created_at) "
+                                + "VALUES (:id, :productId, :changeType, :version, :payload, :createdAt)")
+                        .bind("id", id)
+                        .bind("productId", change.getProductId())
+                        .bind("changeType", change.getChangeType().name())
+                        .bind("createdAt", OffsetDateTime.ofInstant(change.getCreatedAt(), ZoneOffset.UTC));
+                insert = change.getPayload() == null
+                        ? insert.bindNull("version", Long.class).bindNull("payload", String.class)
+                        : insert.bind("version", change.getProductVersion()).bind("payload", change.getPayload());
+                return insert.fetch().rowsUpdated();
+            });
+        }).thenReturn(event);
+    }
+}
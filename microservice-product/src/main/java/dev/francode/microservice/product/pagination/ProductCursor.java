@@ -0,0 +1,82 @@
+package dev.francode.microservice.product.pagination;
+
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.exception.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Keyset position for scrolling products: the sort key and id of the last row already returned.
+// Encoded as an opaque URL-safe token so clients cannot depend on its layout.
+@Getter
+@AllArgsConstructor
+public class ProductCursor {
+
+    public static final String SORT_ID = "id";
+    public static final String SORT_PRICE = "price";
+
+    // Upper bound of the price column (precision 10, scale 2), used to position a descending scan before the first row
+    private static final BigDecimal PRICE_CEILING = new BigDecimal("100000000");
+
+    private final String sort;
+    private final boolean ascending;
+    private final BigDecimal price;
+    private final long id;
+
+    // Position before the first row for the given ordering
+    public static ProductCursor start(String sort, String direction) {
+        boolean ascending = parseDirection(direction);
+        if (SORT_ID.equalsIgnoreCase(sort)) {
+            return new ProductCursor(SORT_ID, ascending, null, ascending ? 0L : Long.MAX_VALUE);
+        }
+        if (SORT_PRICE.equalsIgnoreCase(sort)) {
+            return new ProductCursor(SORT_PRICE, ascending, ascending ? BigDecimal.ONE.negate() : PRICE_CEILING,
+                    ascending ? 0L : Long.MAX_VALUE);
+        }
+        throw new InvalidCursorException("Unsupported sort property: " + sort);
+    }
+
+    public ProductCursor after(ProductResponseDTO last) {
+        return new ProductCursor(sort, ascending, SORT_PRICE.equals(sort) ? last.getPrice() : null, last.getId());
+    }
+
+    public String encode() {
+        String raw = sort + ":" + (ascending ? "asc" : "desc") + ":" + (price == null ? "" : price.toPlainString()) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 4) {
+                throw new InvalidCursorException("Invalid cursor.");
+            }
+            boolean ascending = parseDirection(parts[1]);
+            long id = Long.parseLong(parts[3]);
+            if (SORT_ID.equals(parts[0]) && parts[2].isEmpty()) {
+                return new ProductCursor(SORT_ID, ascending, null, id);
+            }
+            if (SORT_PRICE.equals(parts[0]) && !parts[2].isEmpty()) {
+                return new ProductCursor(SORT_PRICE, ascending, new BigDecimal(parts[2]), id);
+            }
+            throw new InvalidCursorException("Invalid cursor.");
+        } catch (IllegalArgumentException ex) {
+            // Also covers malformed Base64 and NumberFormatException
+            throw new InvalidCursorException("Invalid cursor.");
+        }
+    }
+
+    private static boolean parseDirection(String direction) {
+        if ("asc".equalsIgnoreCase(direction)) {
+            return true;
+        }
+        if ("desc".equalsIgnoreCase(direction)) {
+            return false;
+        }
+        throw new InvalidCursorException("Unsupported sort direction: " + direction);
+    }
+}
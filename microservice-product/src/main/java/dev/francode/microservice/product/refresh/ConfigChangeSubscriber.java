@@ -0,0 +1,265 @@
+package dev.francode.microservice.product.refresh;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesRebinder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps the config server's change stream (GET /changes) open and applies what it pushes without a restart or a
+// refetch. On the first change the property sources fetched at startup are folded into one that this class
+// maintains, at the same rank (above application.yml, below command-line arguments and environment variables).
+// Only what depends on the changed keys is rebound: log levels, and @ConfigurationProperties beans whose prefix
+// covers one of them. Spring Cloud's own rebinder would rebind every bean on each change. Log levels are set here
+// rather than left to LoggingRebinder, which is missing when spring.cloud.refresh is off (fast-start).
+@Slf4j
+public class ConfigChangeSubscriber implements SmartLifecycle {
+
+    private static final String PROPERTY_SOURCE_NAME = "configserver:pushed";
+    private static final String CONFIG_SERVER_PREFIX = "configserver:";
+    // Holds config.client.version, the version fetched at startup
+    private static final String CONFIG_CLIENT_SOURCE = "configClient";
+    private static final String VERSION_PROPERTY = "config.client.version";
+    private static final String LOGGING_LEVEL = "logging.level";
+    private static final Bindable<Map<String, LogLevel>> LOG_LEVELS = Bindable.mapOf(String.class, LogLevel.class);
+    private static final ParameterizedTypeReference<ServerSentEvent<ConfigChange>> CHANGE_EVENTS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    // See config-server's ConfigChange; full means changed holds every property
+    private record ConfigChange(String version, boolean full, Map<String, Object> changed, List<String> removed) {
+    }
+
+    private final WebClient webClient;
+    private final ApplicationContext applicationContext;
+    private final ConfigurableEnvironment environment;
+    private final ObjectProvider<ConfigurationPropertiesRebinder> rebinder;
+    private final ObjectProvider<LoggingSystem> loggingSystem;
+    private final Duration reconnectDelay;
+    private final Duration maxReconnectDelay;
+    private final Map<String, Object> properties = new ConcurrentHashMap<>();
+    private volatile Disposable subscription;
+
+    public ConfigChangeSubscriber(WebClient webClient,
+                                  ApplicationContext applicationContext,
+                                  ConfigurableEnvironment environment,
+                                  ObjectProvider<ConfigurationPropertiesRebinder> rebinder,
+                                  ObjectProvider<LoggingSystem> loggingSystem,
+                                  Duration reconnectDelay,
+                                  Duration maxReconnectDelay) {
+        this.webClient = webClient;
+        this.applicationContext = applicationContext;
+        this.environment = environment;
+        this.rebinder = rebinder;
+        this.loggingSystem = loggingSystem;
+        this.reconnectDelay = reconnectDelay;
+        this.maxReconnectDelay = maxReconnectDelay;
+    }
+
+    @Override
+    public void start() {
+        // Each (re)connect sends the version in effect by then, so changes made while disconnected are not lost
+        subscription = Flux.defer(this::changes)
+                // The server ends the stream after its timeout
+                .repeatWhen(completed -> completed.delayElements(reconnectDelay))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, reconnectDelay)
+                        .maxBackoff(maxReconnectDelay)
+                        .doBeforeRetry(signal -> log.debug("Config change stream unavailable, reconnecting: {}",
+                                signal.failure().toString())))
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(this::apply, error -> log.warn("Config change stream stopped", error));
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null;
+    }
+
+    private Flux<ConfigChange> changes() {
+        String profiles = environment.getActiveProfiles().length == 0 ? "default"
+                : String.join(",", environment.getActiveProfiles());
+        return webClient.get()
+                .uri(uri -> uri.path("/changes")
+                        .queryParam("application", environment.getProperty("spring.application.name"))
+                        .queryParam("profile", environment.getProperty("spring.cloud.config.profile", profiles))
+                        .queryParamIfPresent("label",
+                                Optional.ofNullable(environment.getProperty("spring.cloud.config.label")))
+                        .queryParamIfPresent("version", Optional.ofNullable(environment.getProperty(VERSION_PROPERTY)))
+                        .build())
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(CHANGE_EVENTS)
+                .filter(event -> "change".equals(event.event()) && event.data() != null)
+                .map(ServerSentEvent::data);
+    }
+
+    private void apply(ConfigChange change) {
+        try {
+            adoptFetchedSources();
+            Map<String, Object> before = new HashMap<>(properties);
+            if (change.full()) {
+                properties.clear();
+            }
+            properties.putAll(change.changed());
+            change.removed().forEach(properties::remove);
+            properties.put(VERSION_PROPERTY, change.version());
+
+            Set<String> keys = new HashSet<>(before.keySet());
+            keys.addAll(properties.keySet());
+            keys.removeIf(key -> key.equals(VERSION_PROPERTY) || Objects.equals(before.get(key), properties.get(key)));
+            // Not the context as source, so ConfigurationPropertiesRebinder leaves the beans alone; any other
+            // listener still sees the keys
+            applicationContext.publishEvent(new EnvironmentChangeEvent(this, keys));
+            List<String> loggers = setLogLevels(keys);
+            List<String> rebound = rebind(keys);
+            log.info("Config version {} applied, changed: {}, loggers: {}, rebound: {}", change.version(), keys,
+                    loggers, rebound);
+        } catch (RuntimeException ex) {
+            log.warn("Applying config version {} failed", change.version(), ex);
+        }
+    }
+
+    // Replaces the property sources fetched at startup by one mutable copy, at the rank of the first of them.
+    // Without any (the server was down at startup) it goes just above application.yml.
+    private void adoptFetchedSources() {
+        MutablePropertySources sources = environment.getPropertySources();
+        if (sources.contains(PROPERTY_SOURCE_NAME)) {
+            return;
+        }
+        List<PropertySource<?>> fetched = new ArrayList<>();
+        for (PropertySource<?> source : sources) {
+            if (source.getName().startsWith(CONFIG_SERVER_PREFIX) || source.getName().equals(CONFIG_CLIENT_SOURCE)) {
+                fetched.add(source);
+            }
+        }
+        for (PropertySource<?> source : fetched) {
+            if (source instanceof EnumerablePropertySource<?> enumerable) {
+                for (String name : enumerable.getPropertyNames()) {
+                    Object value = enumerable.getProperty(name);
+                    if (value != null) {
+                        properties.putIfAbsent(name, value);
+                    }
+                }
+            }
+        }
+        MapPropertySource replacement = new MapPropertySource(PROPERTY_SOURCE_NAME, properties);
+        String anchor = fetched.isEmpty() ? firstApplicationConfig(sources) : fetched.get(0).getName();
+        if (anchor == null) {
+            sources.addLast(replacement);
+        } else {
+            sources.addBefore(anchor, replacement);
+        }
+        fetched.forEach(source -> sources.remove(source.getName()));
+    }
+
+    private static String firstApplicationConfig(MutablePropertySources sources) {
+        for (PropertySource<?> source : sources) {
+            if (source.getName().startsWith("Config resource")) {
+                return source.getName();
+            }
+        }
+        return null;
+    }
+
+    // Loggers named by a changed logging.level.* key; a removed key hands the logger back to its parent's level
+    private List<String> setLogLevels(Set<String> keys) {
+        LoggingSystem system = loggingSystem.getIfAvailable();
+        List<String> loggers = new ArrayList<>();
+        if (system == null) {
+            return loggers;
+        }
+        Map<String, LogLevel> levels = null;
+        for (String key : keys) {
+            if (!key.startsWith(LOGGING_LEVEL + ".")) {
+                continue;
+            }
+            if (levels == null) {
+                // Bound as a map, as LoggingApplicationListener does, so logger names keep their dots and case
+                levels = Binder.get(environment).bind(LOGGING_LEVEL, LOG_LEVELS).orElseGet(Map::of);
+            }
+            String name = key.substring(LOGGING_LEVEL.length() + 1);
+            system.setLogLevel(name.equalsIgnoreCase("root") ? LoggingSystem.ROOT_LOGGER_NAME : name,
+                    levels.get(name));
+            loggers.add(name);
+        }
+        return loggers;
+    }
+
+    // @ConfigurationProperties beans with a prefix covering a changed key. A bean that cannot be rebound in place
+    // (e.g. the connection pool) keeps its settings until a restart.
+    private List<String> rebind(Set<String> keys) {
+        ConfigurationPropertiesRebinder propertiesRebinder = rebinder.getIfAvailable();
+        List<String> rebound = new ArrayList<>();
+        if (propertiesRebinder == null || keys.isEmpty()) {
+            return rebound;
+        }
+        for (String name : propertiesRebinder.getBeanNames()) {
+            // On the bean's class or its @Bean method
+            ConfigurationProperties annotation = applicationContext.findAnnotationOnBean(name,
+                    ConfigurationProperties.class);
+            if (annotation == null || !covers(annotation.prefix(), keys)) {
+                continue;
+            }
+            try {
+                if (propertiesRebinder.rebind(name)) {
+                    rebound.add(name);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Cannot rebind {} in place, its changed settings apply after a restart: {}", name,
+                        ex.toString());
+            }
+        }
+        return rebound;
+    }
+
+    private static boolean covers(String prefix, Set<String> keys) {
+        if (prefix.isEmpty()) {
+            return true;
+        }
+        for (String key : keys) {
+            if (key.equals(prefix) || key.startsWith(prefix + ".") || key.startsWith(prefix + "[")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
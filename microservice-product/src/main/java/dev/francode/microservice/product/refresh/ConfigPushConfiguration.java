@@ -0,0 +1,35 @@
+package dev.francode.microservice.product.refresh;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesRebinder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+// Configuration pushed by the config server (see config-server's ConfigChangeController) instead of picked up on
+// restart; product.config-push.enabled=false leaves the startup fetch as the only one
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "product.config-push.enabled", havingValue = "true", matchIfMissing = true)
+public class ConfigPushConfiguration {
+
+    @Bean
+    public ConfigChangeSubscriber configChangeSubscriber(
+            WebClient.Builder webClientBuilder,
+            ApplicationContext applicationContext,
+            ConfigurableEnvironment environment,
+            ObjectProvider<ConfigurationPropertiesRebinder> rebinder,
+            ObjectProvider<LoggingSystem> loggingSystem,
+            @Value("${product.config-push.uri:http://localhost:8888}") String uri,
+            @Value("${product.config-push.reconnect-delay:PT1S}") Duration reconnectDelay,
+            @Value("${product.config-push.max-reconnect-delay:PT30S}") Duration maxReconnectDelay) {
+        return new ConfigChangeSubscriber(webClientBuilder.baseUrl(uri).build(), applicationContext, environment,
+                rebinder, loggingSystem, reconnectDelay, maxReconnectDelay);
+    }
+}
@@ -0,0 +1,38 @@
+package dev.francode.microservice.product.repository;
+
+import dev.francode.microservice.product.dto.ProductChangeDTO;
+import dev.francode.microservice.product.outbox.ProductChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    // Relay backlog: rows not published yet, in the order they were appended. Not by id alone: the JPA and the
+    // R2DBC writers take ids from the sequence in separate blocks.
+    @Query("SELECT c FROM ProductChange c WHERE c.position IS NULL ORDER BY c.createdAt, c.id")
+    List<ProductChange> findUnpublished(Pageable pageable);
+
+    // One page of the change feed after the given position, read straight into the response DTO
+    @Query("SELECT new dev.francode.microservice.product.dto.ProductChangeDTO("
+            + "c.position, c.productId, c.changeType, c.productVersion, c.createdAt, c.payload) "
+            + "FROM ProductChange c WHERE c.position > :since ORDER BY c.position")
+    List<ProductChangeDTO> findFeedAfter(@Param("since") long since, Pageable pageable);
+
+    @Query("SELECT MIN(c.position) FROM ProductChange c")
+    Long findMinPosition();
+
+    @Query("SELECT MAX(c.position) FROM ProductChange c")
+    Long findMaxPosition();
+
+    // Retention: published rows older than the cutoff, always keeping the newest published one so the feed's
+    // current position stays known
+    @Modifying
+    @Query("DELETE FROM ProductChange c WHERE c.publishedAt < :cutoff AND c.position < :maxPosition")
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff, @Param("maxPosition") long maxPosition);
+}
@@ -1,30 +1,79 @@
 package dev.francode.microservice.product.repository;
 
+import dev.francode.microservice.product.dto.ProductResponseDTO;
 import dev.francode.microservice.product.entity.Product;
+import dev.francode.microservice.product.filter.ProductFilterRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    // Find products whose name contains the given string (case-insensitive)
-    List<Product> findByNameContainingIgnoreCase(String name);
+    // Read queries select straight into ProductResponseDTO (constructor expression): no managed entities,
+    // so nothing is added to the persistence context, snapshotted or dirty-checked.
+    String SELECT_DTO = "select new dev.francode.microservice.product.dto.ProductResponseDTO("
+            + "p.id, p.name, p.description, p.stock, p.price, p.version, p.updatedAt) from Product p";
+
+    // Rows fetched per JDBC round trip by the streaming queries
+    String STREAM_FETCH_SIZE = "500";
+
+    // Find a product by id as a read-only view
+    @Query(SELECT_DTO + " where p.id = :id")
+    Optional<ProductResponseDTO> findViewById(@Param("id") Long id);
+
+    // Find several products by id as read-only views (unordered)
+    @Query(SELECT_DTO + " where p.id in :ids")
+    List<ProductResponseDTO> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Page through all products as read-only views
+    @Query(value = SELECT_DTO, countQuery = "select count(p) from Product p")
+    Page<ProductResponseDTO> findAllViews(Pageable pageable);
+
+    // Find products whose name contains the given string (case-insensitive); % and _ in it match themselves, as in
+    // the derived countByNameContainingIgnoreCase
+    @Query(SELECT_DTO + " where lower(p.name) like lower(concat('%', :#{escape(#name)}, '%'))"
+            + " escape :#{escapeCharacter()}")
+    List<ProductResponseDTO> findByNameContainingIgnoreCase(@Param("name") String name);
 
     // Find products that have stock available (stock > 0)
-    List<Product> findByStockGreaterThan(int stock);
+    @Query(SELECT_DTO + " where p.stock > :stock")
+    List<ProductResponseDTO> findByStockGreaterThan(@Param("stock") int stock);
 
     // Find products that are out of stock (stock == 0)
-    List<Product> findByStockEquals(int stock);
+    @Query(SELECT_DTO + " where p.stock = :stock")
+    List<ProductResponseDTO> findByStockEquals(@Param("stock") int stock);
 
     // Find products cheaper than a given price
-    List<Product> findByPriceLessThan(BigDecimal price);
+    @Query(SELECT_DTO + " where p.price < :price")
+    List<ProductResponseDTO> findByPriceLessThan(@Param("price") BigDecimal price);
 
     // Find products more expensive than a given price
-    List<Product> findByPriceGreaterThan(BigDecimal price);
+    @Query(SELECT_DTO + " where p.price > :price")
+    List<ProductResponseDTO> findByPriceGreaterThan(@Param("price") BigDecimal price);
 
     // Find products within a specific price range
-    List<Product> findByPriceBetween(BigDecimal min, BigDecimal max);
+    @Query(SELECT_DTO + " where p.price between :min and :max")
+    List<ProductResponseDTO> findByPriceBetween(@Param("min") BigDecimal min, @Param("max") BigDecimal max);
+
+    // Price range combined with a stock range, in (price, id) order
+    @Query(SELECT_DTO + " where p.price between :min and :max and p.stock between :minStock and :maxStock"
+            + " order by p.price asc, p.id asc")
+    List<ProductResponseDTO> findByPriceBetweenAndStockBetween(@Param("min") BigDecimal min,
+                                                               @Param("max") BigDecimal max,
+                                                               @Param("minStock") int minStock,
+                                                               @Param("maxStock") int maxStock);
 
     // Count how many products match a partial name (case-insensitive)
     long countByNameContainingIgnoreCase(String name);
@@ -35,10 +84,72 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Count all products
     long count();
 
-    // Get the most expensive product
-    List<Product> findTop1ByOrderByPriceDesc();
+    // Get the most expensive product (the Pageable only carries the limit)
+    @Query(SELECT_DTO + " order by p.price desc, p.id desc")
+    List<ProductResponseDTO> findTopByPriceDesc(Pageable limit);
 
-    // Get the cheapest product
-    List<Product> findTop1ByOrderByPriceAsc();
-}
+    // Get the cheapest product (the Pageable only carries the limit)
+    @Query(SELECT_DTO + " order by p.price asc, p.id asc")
+    List<ProductResponseDTO> findTopByPriceAsc(Pageable limit);
+
+    // Streaming variants of the list queries above; must be consumed inside a transaction and closed
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO)
+    Stream<ProductResponseDTO> streamAll();
+
+    // Only what ProductFilterIndex keeps, already in the (price, id) order of its postings (idx_product_price)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select new dev.francode.microservice.product.filter.ProductFilterRow(p.id, p.price, p.stock, p.version)"
+            + " from Product p order by p.price asc, p.id asc")
+    Stream<ProductFilterRow> streamFilterRows();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + " where p.stock > :stock")
+    Stream<ProductResponseDTO> streamByStockGreaterThan(@Param("stock") int stock);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + " where p.stock = :stock")
+    Stream<ProductResponseDTO> streamByStockEquals(@Param("stock") int stock);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + " where p.price < :price")
+    Stream<ProductResponseDTO> streamByPriceLessThan(@Param("price") BigDecimal price);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + " where p.price > :price")
+    Stream<ProductResponseDTO> streamByPriceGreaterThan(@Param("price") BigDecimal price);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + " where p.price between :min and :max")
+    Stream<ProductResponseDTO> streamByPriceBetween(@Param("min") BigDecimal min, @Param("max") BigDecimal max);
+
+    // Keyset (seek) queries: rows strictly after the given position, no count query.
+    // The Pageable only carries the limit; ordering is fixed by each query.
+
+    @Query(SELECT_DTO + " where p.id > :id order by p.id asc")
+    List<ProductResponseDTO> findNextByIdAsc(@Param("id") long id, Pageable limit);
+
+    @Query(SELECT_DTO + " where p.id < :id order by p.id desc")
+    List<ProductResponseDTO> findNextByIdDesc(@Param("id") long id, Pageable limit);
+
+    @Query(SELECT_DTO + " where p.price >= :price and (p.price > :price or p.id > :id) order by p.price asc, p.id asc")
+    List<ProductResponseDTO> findNextByPriceAsc(@Param("price") BigDecimal price, @Param("id") long id, Pageable limit);
+
+    @Query(SELECT_DTO + " where p.price <= :price and (p.price < :price or p.id < :id) order by p.price desc, p.id desc")
+    List<ProductResponseDTO> findNextByPriceDesc(@Param("price") BigDecimal price, @Param("id") long id, Pageable limit);
+
+    // Atomic stock changes: a single conditional UPDATE instead of read-modify-write, so concurrent
+    // reservations never lose updates and only the stock column is written. Return the number of rows changed.
+
+    @Modifying
+    @Query("update Product p set p.stock = p.stock - :quantity, p.version = p.version + 1, p.updatedAt = instant "
+            + "where p.id = :id and p.stock >= :quantity")
+    int decrementStock(@Param("id") long id, @Param("quantity") int quantity);
+
+    // Matches no row when the stock would pass the largest int, as well as when the product does not exist
+    @Modifying
+    @Query("update Product p set p.stock = p.stock + :quantity, p.version = p.version + 1, p.updatedAt = instant "
+            + "where p.id = :id and p.stock <= 2147483647 - :quantity")
+    int incrementStock(@Param("id") long id, @Param("quantity") int quantity);
+}
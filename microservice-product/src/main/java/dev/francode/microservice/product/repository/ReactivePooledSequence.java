@@ -0,0 +1,45 @@
+package dev.francode.microservice.product.repository;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+// Hands out ids from a database sequence with the pooled scheme Hibernate uses for @SequenceGenerator with an
+// allocationSize: the sequence value N stands for the block of ids up to N, so rows inserted through R2DBC and
+// through JPA never collide. allocationSize must match the sequence increment.
+public class ReactivePooledSequence {
+
+    private final Supplier<Mono<Long>> nextValue;
+    private final int allocationSize;
+
+    private final Object lock = new Object();
+    private long nextId = 1;
+    private long maxId = 0;
+
+    public ReactivePooledSequence(Supplier<Mono<Long>> nextValue, int allocationSize) {
+        this.nextValue = nextValue;
+        this.allocationSize = allocationSize;
+    }
+
+    public Mono<Long> next() {
+        return Mono.defer(() -> {
+            synchronized (lock) {
+                if (nextId <= maxId) {
+                    return Mono.just(nextId++);
+                }
+            }
+            return nextValue.get()
+                    .flatMap(value -> value == 1
+                            // The first block runs from 1 up to the next value, as in Hibernate's pooled optimizer
+                            ? nextValue.get().map(hi -> new long[]{1, hi})
+                            : Mono.just(new long[]{value - allocationSize + 1, value}))
+                    .map(block -> {
+                        synchronized (lock) {
+                            nextId = block[0] + 1;
+                            maxId = block[1];
+                        }
+                        return block[0];
+                    });
+        });
+    }
+}
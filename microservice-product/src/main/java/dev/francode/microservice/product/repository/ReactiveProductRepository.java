@@ -0,0 +1,73 @@
+package dev.francode.microservice.product.repository;
+
+import dev.francode.microservice.product.entity.ProductRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+// Non-blocking counterpart of ProductRepository for the reactive profile.
+// Rows are emitted as the driver reads them, so a Flux result is only ever held one demand window at a time.
+public interface ReactiveProductRepository extends R2dbcRepository<ProductRow, Long> {
+
+    // Next value of the pooled id sequence shared with Hibernate
+    @Query("SELECT NEXT VALUE FOR product_seq")
+    Mono<Long> nextSequenceValue();
+
+    // Page through all products; the total comes from count()
+    Flux<ProductRow> findAllBy(Pageable pageable);
+
+    // Find products whose name contains the given string (case-insensitive)
+    Flux<ProductRow> findByNameContainingIgnoreCase(String name);
+
+    // Find products with stock above the given value
+    Flux<ProductRow> findByStockGreaterThan(int stock);
+
+    // Find products with exactly the given stock
+    Flux<ProductRow> findByStock(int stock);
+
+    // Find products cheaper than a given price
+    Flux<ProductRow> findByPriceLessThan(BigDecimal price);
+
+    // Find products more expensive than a given price
+    Flux<ProductRow> findByPriceGreaterThan(BigDecimal price);
+
+    // Find products within a specific price range
+    Flux<ProductRow> findByPriceBetween(BigDecimal min, BigDecimal max);
+
+    // Price range combined with a stock range, in (price, id) order
+    Flux<ProductRow> findByPriceBetweenAndStockBetweenOrderByPriceAscIdAsc(BigDecimal min, BigDecimal max,
+                                                                          int minStock, int maxStock);
+
+    // Count how many products match a partial name (case-insensitive)
+    Mono<Long> countByNameContainingIgnoreCase(String name);
+
+    // Count how many products have stock above the given value
+    Mono<Long> countByStockGreaterThan(int stock);
+
+    // Get the most expensive product
+    Mono<ProductRow> findFirstByOrderByPriceDescIdDesc();
+
+    // Get the cheapest product
+    Mono<ProductRow> findFirstByOrderByPriceAscIdAsc();
+
+    // Keyset (seek) queries, same positions as the ProductRepository ones
+
+    @Query("SELECT * FROM product WHERE id > :id ORDER BY id ASC LIMIT :limit")
+    Flux<ProductRow> findNextByIdAsc(@Param("id") long id, @Param("limit") int limit);
+
+    @Query("SELECT * FROM product WHERE id < :id ORDER BY id DESC LIMIT :limit")
+    Flux<ProductRow> findNextByIdDesc(@Param("id") long id, @Param("limit") int limit);
+
+    @Query("SELECT * FROM product WHERE price >= :price AND (price > :price OR id > :id) "
+            + "ORDER BY price ASC, id ASC LIMIT :limit")
+    Flux<ProductRow> findNextByPriceAsc(@Param("price") BigDecimal price, @Param("id") long id, @Param("limit") int limit);
+
+    @Query("SELECT * FROM product WHERE price <= :price AND (price < :price OR id < :id) "
+            + "ORDER BY price DESC, id DESC LIMIT :limit")
+    Flux<ProductRow> findNextByPriceDesc(@Param("price") BigDecimal price, @Param("id") long id, @Param("limit") int limit);
+}
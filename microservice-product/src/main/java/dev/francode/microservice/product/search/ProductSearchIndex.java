@@ -0,0 +1,497 @@
+package dev.francode.microservice.product.search;
+
+import dev.francode.microservice.product.event.ProductChangeType;
+import dev.francode.microservice.product.event.ProductChangedEvent;
+import dev.francode.microservice.product.event.ProductTombstones;
+import dev.francode.microservice.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-process n-gram index over Product.name, replacing LOWER(name) LIKE '%x%' scans.
+// Trigram postings answer "contains" queries of 3+ chars, bigram postings those of 1 and 2 chars (the first
+// keystrokes of a search box); 1- and 2-char word prefixes answer short typeahead queries. Only the requested page
+// of matches is ranked in order: a bounded heap keeps the best offset + limit while the rest are only counted.
+// Loaded from the database once the application is ready, kept in sync from committed ProductChangedEvents (each
+// document remembers the product version it was indexed at) and reconciled periodically against the database.
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    // Follows a name's last char in the bigram postings; a noncharacter, so no name contains it
+    private static final char END = '\uFFFF';
+
+    // Match quality, lower is better
+    private static final int SCORE_EXACT = 0;
+    private static final int SCORE_PREFIX = 1;
+    private static final int SCORE_WORD_PREFIX = 2;
+    private static final int SCORE_CONTAINS = 3;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ProductTombstones tombstones;
+
+    private Segment segment = new Segment();
+    // Changes committed while the index is being loaded, replayed on top of the loaded rows
+    private List<ProductChangedEvent> pending;
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${product.read-models.tombstone-ttl:PT10M}") Duration tombstoneTtl) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.tombstones = new ProductTombstones(tombstoneTtl);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload(false);
+    }
+
+    @Scheduled(fixedDelayString = "${product.search.reconcile-interval:PT5M}",
+            initialDelayString = "${product.search.reconcile-interval:PT5M}")
+    public void reconcile() {
+        reload(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            apply(segment, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reload(boolean reconciling) {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                // A load is already running
+                return;
+            }
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment loaded = new Segment();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (var products = productRepository.streamAll()) {
+                    products.forEach(product -> loaded.put(product.getId(), product.getName(), product.getVersion()));
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Searches keep going to the database while the index is not ready
+            log.error("Product search index could not be loaded", ex);
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(event -> apply(loaded, event));
+            pending = null;
+            if (reconciling && loaded.liveCount != segment.liveCount) {
+                log.warn("Product search index drift corrected: {} -> {} products", segment.liveCount, loaded.liveCount);
+            }
+            segment = loaded;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!reconciling) {
+            log.info("Product search index loaded with {} products in {} ms",
+                    loaded.liveCount, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Products whose name contains the query (case-insensitive), ranked: exact, prefix, word prefix, anywhere
+    public ProductSearchResult search(String query, int offset, int limit) {
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            return segment.window(normalized, segment.containsCandidates(normalized), false, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(String query) {
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            return segment.count(normalized, segment.containsCandidates(normalized));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Typeahead: products with a word in the name starting with the prefix, ranked like search
+    public List<Long> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            return segment.window(normalized, segment.prefixCandidates(normalized), true, 0, limit).getProductIds();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Events older than what the segment holds, and any event after a product's delete, are dropped
+    private void apply(Segment target, ProductChangedEvent event) {
+        long productId = event.getProductId();
+        if (event.getType() == ProductChangeType.DELETED) {
+            tombstones.add(productId);
+            target.remove(productId);
+        } else if (!tombstones.contains(productId) && target.isOlder(productId, event.getVersion())) {
+            target.put(productId, event.getAfter().getName(), event.getVersion());
+        } else {
+            return;
+        }
+        if (target.needsCompaction()) {
+            Segment compacted = target.compact();
+            if (target == segment) {
+                segment = compacted;
+            } else {
+                // Loading segment: copy back into the instance that load() will publish
+                target.replaceWith(compacted);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Segment {
+
+        // Internal document numbers are dense and only grow; updates append a new document and retire the old one
+        private long[] productIds = new long[1024];
+        private long[] versions = new long[1024];
+        private String[] names = new String[1024];
+        private int size;
+        private int liveCount;
+        private BitSet live = new BitSet();
+        private Map<Long, Integer> docByProduct = new HashMap<>();
+        private Map<Long, Postings> trigrams = new HashMap<>();
+        // Every 2-char substring, plus each name's last char followed by END, so a 1-char query is the union of the
+        // bigrams starting with it
+        private Map<Integer, Postings> bigrams = new HashMap<>();
+        private Map<Character, List<Postings>> bigramsByFirstChar = new HashMap<>();
+        private Map<String, Postings> wordPrefixes = new HashMap<>();
+
+        // True when the product is not indexed or indexed at an earlier version
+        boolean isOlder(long productId, long version) {
+            Integer doc = docByProduct.get(productId);
+            return doc == null || versions[doc] < version;
+        }
+
+        void put(long productId, String name, long version) {
+            String normalized = normalize(name);
+            Integer existing = docByProduct.get(productId);
+            if (existing != null && normalized.equals(names[existing])) {
+                // Stock and price changes do not touch the name; re-indexing them would only retire documents
+                versions[existing] = version;
+                return;
+            }
+            remove(productId);
+            int doc = size++;
+            if (doc == productIds.length) {
+                productIds = Arrays.copyOf(productIds, doc * 2);
+                versions = Arrays.copyOf(versions, doc * 2);
+                names = Arrays.copyOf(names, doc * 2);
+            }
+            productIds[doc] = productId;
+            versions[doc] = version;
+            names[doc] = normalized;
+            live.set(doc);
+            liveCount++;
+            docByProduct.put(productId, doc);
+
+            for (int i = 0; i + 3 <= normalized.length(); i++) {
+                trigrams.computeIfAbsent(trigram(normalized, i), key -> new Postings()).add(doc);
+            }
+            for (int i = 0; i < normalized.length(); i++) {
+                char first = normalized.charAt(i);
+                char second = i + 1 < normalized.length() ? normalized.charAt(i + 1) : END;
+                bigrams.computeIfAbsent(bigram(first, second), key -> {
+                    Postings postings = new Postings();
+                    bigramsByFirstChar.computeIfAbsent(first, c -> new ArrayList<>()).add(postings);
+                    return postings;
+                }).add(doc);
+            }
+            for (int i = 0; i < normalized.length(); i++) {
+                if (isWordStart(normalized, i)) {
+                    wordPrefixes.computeIfAbsent(normalized.substring(i, i + 1), key -> new Postings()).add(doc);
+                    if (i + 1 < normalized.length()) {
+                        wordPrefixes.computeIfAbsent(normalized.substring(i, i + 2), key -> new Postings()).add(doc);
+                    }
+                }
+            }
+        }
+
+        void remove(long productId) {
+            Integer doc = docByProduct.remove(productId);
+            if (doc != null) {
+                live.clear(doc);
+                names[doc] = null;
+                liveCount--;
+            }
+        }
+
+        // Retired documents still occupy postings; rebuild once they outnumber the live ones
+        boolean needsCompaction() {
+            return size > 1024 && size - liveCount > liveCount;
+        }
+
+        Segment compact() {
+            Segment compacted = new Segment();
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                compacted.put(productIds[doc], names[doc], versions[doc]);
+            }
+            return compacted;
+        }
+
+        void replaceWith(Segment other) {
+            productIds = other.productIds;
+            versions = other.versions;
+            names = other.names;
+            size = other.size;
+            liveCount = other.liveCount;
+            live = other.live;
+            docByProduct = other.docByProduct;
+            trigrams = other.trigrams;
+            bigrams = other.bigrams;
+            bigramsByFirstChar = other.bigramsByFirstChar;
+            wordPrefixes = other.wordPrefixes;
+        }
+
+        // Superset of the documents containing the query (exactly those, below 3 chars); null means "every document"
+        int[] containsCandidates(String query) {
+            if (query.isEmpty()) {
+                return null;
+            }
+            if (query.length() == 2) {
+                Postings postings = bigrams.get(bigram(query.charAt(0), query.charAt(1)));
+                return postings == null ? new int[0] : Arrays.copyOf(postings.docs, postings.size);
+            }
+            if (query.length() == 1) {
+                return union(bigramsByFirstChar.getOrDefault(query.charAt(0), List.of()));
+            }
+            List<Postings> lists = new ArrayList<>();
+            for (int i = 0; i + 3 <= query.length(); i++) {
+                Postings postings = trigrams.get(trigram(query, i));
+                if (postings == null) {
+                    return new int[0];
+                }
+                lists.add(postings);
+            }
+            return intersect(lists);
+        }
+
+        int[] prefixCandidates(String prefix) {
+            if (prefix.length() < 3) {
+                Postings postings = wordPrefixes.get(prefix);
+                return postings == null ? new int[0] : Arrays.copyOf(postings.docs, postings.size);
+            }
+            return containsCandidates(prefix);
+        }
+
+        int count(String query, int[] candidates) {
+            int count = 0;
+            int limit = candidates == null ? size : candidates.length;
+            for (int i = 0; i < limit; i++) {
+                int doc = candidates == null ? i : candidates[i];
+                if (live.get(doc) && names[doc].contains(query)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        // The matches from offset to offset + limit in rank order (score, then shorter names, then older
+        // documents), with the total number of matches. Only the best offset + limit sort keys are kept, in a
+        // bounded max-heap, so a common term costs a scan of its candidates rather than a sort of all its matches.
+        ProductSearchResult window(String query, int[] candidates, boolean wordPrefixOnly, int offset, int limit) {
+            int count = candidates == null ? size : candidates.length;
+            int wanted = (int) Math.min((long) offset + limit, Math.min(count, liveCount));
+            long[] heap = new long[wanted];
+            int heapSize = 0;
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                int doc = candidates == null ? i : candidates[i];
+                if (!live.get(doc)) {
+                    continue;
+                }
+                int score = score(names[doc], query);
+                if (score < 0 || (wordPrefixOnly && score > SCORE_WORD_PREFIX)) {
+                    continue;
+                }
+                matches++;
+                if (wanted == 0) {
+                    continue;
+                }
+                long length = Math.min(names[doc].length(), 0xFFFF);
+                long key = ((long) score << 48) | (length << 32) | doc;
+                if (heapSize < wanted) {
+                    heap[heapSize] = key;
+                    siftUp(heap, heapSize++);
+                } else if (key < heap[0]) {
+                    heap[0] = key;
+                    siftDown(heap, heapSize);
+                }
+            }
+            Arrays.sort(heap, 0, heapSize);
+            List<Long> ids = new ArrayList<>(Math.max(0, heapSize - offset));
+            for (int i = offset; i < heapSize; i++) {
+                ids.add(productIds[(int) heap[i]]);
+            }
+            return new ProductSearchResult(ids, matches);
+        }
+
+        private static void siftUp(long[] heap, int index) {
+            long key = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent] >= key) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = key;
+        }
+
+        private static void siftDown(long[] heap, int size) {
+            long key = heap[0];
+            int index = 0;
+            int child;
+            while ((child = 2 * index + 1) < size) {
+                if (child + 1 < size && heap[child + 1] > heap[child]) {
+                    child++;
+                }
+                if (heap[child] <= key) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = key;
+        }
+
+        private static int score(String name, String query) {
+            int index = name.indexOf(query);
+            if (index < 0) {
+                return -1;
+            }
+            if (index == 0) {
+                return name.length() == query.length() ? SCORE_EXACT : SCORE_PREFIX;
+            }
+            while (index >= 0) {
+                if (isWordStart(name, index)) {
+                    return SCORE_WORD_PREFIX;
+                }
+                index = name.indexOf(query, index + 1);
+            }
+            return SCORE_CONTAINS;
+        }
+
+        private static boolean isWordStart(String value, int index) {
+            return Character.isLetterOrDigit(value.charAt(index))
+                    && (index == 0 || !Character.isLetterOrDigit(value.charAt(index - 1)));
+        }
+
+        private static int bigram(char first, char second) {
+            return (first << 16) | second;
+        }
+
+        private static long trigram(String value, int index) {
+            return ((long) value.charAt(index) << 32) | ((long) value.charAt(index + 1) << 16) | value.charAt(index + 2);
+        }
+
+        // Documents in any of the posting lists, in increasing order
+        private int[] union(List<Postings> lists) {
+            BitSet docs = new BitSet(size);
+            for (Postings postings : lists) {
+                for (int i = 0; i < postings.size; i++) {
+                    docs.set(postings.docs[i]);
+                }
+            }
+            return docs.stream().toArray();
+        }
+
+        // Intersects sorted posting lists, smallest first
+        private static int[] intersect(List<Postings> lists) {
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+            int[] result = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+            int length = result.length;
+            for (int l = 1; l < lists.size() && length > 0; l++) {
+                Postings other = lists.get(l);
+                int kept = 0;
+                int from = 0;
+                for (int i = 0; i < length; i++) {
+                    int found = Arrays.binarySearch(other.docs, from, other.size, result[i]);
+                    if (found >= 0) {
+                        result[kept++] = result[i];
+                        from = found + 1;
+                    } else {
+                        from = -found - 1;
+                    }
+                }
+                length = kept;
+            }
+            return Arrays.copyOf(result, length);
+        }
+    }
+
+    // Growable sorted list of document numbers; documents are appended in increasing order
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package dev.francode.microservice.product.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductSearchResult {
+    // Ids of the requested window, best match first
+    private final List<Long> productIds;
+    // Number of products matching the query
+    private final int total;
+}
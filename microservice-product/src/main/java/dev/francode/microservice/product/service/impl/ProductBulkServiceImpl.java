@@ -0,0 +1,267 @@
+package dev.francode.microservice.product.service.impl;
+
+import dev.francode.microservice.product.dto.BulkItemResultDTO;
+import dev.francode.microservice.product.dto.BulkItemStatus;
+import dev.francode.microservice.product.dto.BulkOperationResponseDTO;
+import dev.francode.microservice.product.dto.ProductBulkUpdateDTO;
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.entity.Product;
+import dev.francode.microservice.product.event.ProductChangedEvent;
+import dev.francode.microservice.product.exception.BulkLimitExceededException;
+import dev.francode.microservice.product.mapper.ProductMapper;
+import dev.francode.microservice.product.repository.ProductRepository;
+import dev.francode.microservice.product.service.interfaces.ProductBulkService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Service
+@Timed(value = "product.service", histogram = true)
+public class ProductBulkServiceImpl implements ProductBulkService {
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxItems;
+
+    @Autowired
+    public ProductBulkServiceImpl(ProductRepository productRepository,
+                                  EntityManager entityManager,
+                                  TransactionTemplate transactionTemplate,
+                                  Validator validator,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${product.bulk.chunk-size:500}") int chunkSize,
+                                  @Value("${product.bulk.max-items:10000}") int maxItems) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    @Override
+    public BulkOperationResponseDTO createProducts(List<ProductRequestDTO> productRequests) {
+        checkLimit(productRequests.size());
+        BulkItemResultDTO[] results = new BulkItemResultDTO[productRequests.size()];
+        List<Integer> valid = validate(productRequests, results);
+
+        for (List<Integer> chunk : chunks(valid)) {
+            try {
+                // One transaction per chunk; the pooled id sequence lets Hibernate send the inserts as a JDBC batch
+                List<Product> saved = transactionTemplate.execute(status -> {
+                    List<Product> entities = chunk.stream()
+                            .map(index -> ProductMapper.toEntity(productRequests.get(index)))
+                            .collect(Collectors.toList());
+                    List<Product> persisted = productRepository.saveAll(entities);
+                    entityManager.flush();
+                    // After the flush, so the events (and the outbox rows) carry the stored version and timestamp
+                    persisted.forEach(product ->
+                            eventPublisher.publishEvent(ProductChangedEvent.created(ProductMapper.toResponseDto(product))));
+                    entityManager.clear();
+                    return persisted;
+                });
+                for (int i = 0; i < chunk.size(); i++) {
+                    results[chunk.get(i)] = success(chunk.get(i), saved.get(i).getId(), BulkItemStatus.CREATED);
+                }
+            } catch (RuntimeException ex) {
+                // Replay the chunk item by item so only the offending rows are reported as failed
+                for (Integer index : chunk) {
+                    results[index] = persistSingle(index, null, () -> {
+                        Product saved = productRepository.saveAndFlush(ProductMapper.toEntity(productRequests.get(index)));
+                        eventPublisher.publishEvent(ProductChangedEvent.created(ProductMapper.toResponseDto(saved)));
+                        return success(index, saved.getId(), BulkItemStatus.CREATED);
+                    });
+                }
+            }
+        }
+        return summarize(results);
+    }
+
+    @Override
+    public BulkOperationResponseDTO updateProducts(List<ProductBulkUpdateDTO> productUpdates) {
+        checkLimit(productUpdates.size());
+        BulkItemResultDTO[] results = new BulkItemResultDTO[productUpdates.size()];
+        List<Integer> valid = validate(productUpdates, results);
+
+        for (List<Integer> chunk : chunks(valid)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Set<Long> ids = chunk.stream()
+                            .map(index -> productUpdates.get(index).getId())
+                            .collect(Collectors.toSet());
+                    Map<Long, Product> existing = productRepository.findAllById(ids).stream()
+                            .collect(Collectors.toMap(Product::getId, Function.identity()));
+                    Map<Product, ProductResponseDTO> updated = new LinkedHashMap<>();
+                    for (Integer index : chunk) {
+                        ProductBulkUpdateDTO update = productUpdates.get(index);
+                        Product product = existing.get(update.getId());
+                        if (product == null) {
+                            results[index] = notFound(index, update.getId());
+                        } else {
+                            ProductResponseDTO before = ProductMapper.toResponseDto(product);
+                            ProductMapper.updateEntity(product, update);
+                            updated.putIfAbsent(product, before);
+                            results[index] = success(index, update.getId(), BulkItemStatus.UPDATED);
+                        }
+                    }
+                    // Dirty entities are flushed as batched UPDATE statements (hibernate.order_updates)
+                    entityManager.flush();
+                    // Published once the new versions are known
+                    updated.forEach((product, before) ->
+                            eventPublisher.publishEvent(ProductChangedEvent.updated(before, ProductMapper.toResponseDto(product))));
+                    entityManager.clear();
+                });
+            } catch (RuntimeException ex) {
+                for (Integer index : chunk) {
+                    ProductBulkUpdateDTO update = productUpdates.get(index);
+                    results[index] = persistSingle(index, update.getId(), () -> productRepository.findById(update.getId())
+                            .map(product -> {
+                                ProductResponseDTO before = ProductMapper.toResponseDto(product);
+                                ProductMapper.updateEntity(product, update);
+                                productRepository.saveAndFlush(product);
+                                eventPublisher.publishEvent(ProductChangedEvent.updated(before, ProductMapper.toResponseDto(product)));
+                                return success(index, update.getId(), BulkItemStatus.UPDATED);
+                            })
+                            .orElseGet(() -> notFound(index, update.getId())));
+                }
+            }
+        }
+        return summarize(results);
+    }
+
+    @Override
+    public BulkOperationResponseDTO deleteProducts(List<Long> ids) {
+        checkLimit(ids.size());
+        BulkItemResultDTO[] results = new BulkItemResultDTO[ids.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null || id <= 0) {
+                results[i] = failure(i, id, Map.of("error", "Invalid product ID: " + id));
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Set<Long> requested = chunk.stream().map(ids::get).collect(Collectors.toSet());
+                    // Rows are loaded once so listeners get the deleted state, then removed with a single DELETE ... WHERE id IN (...)
+                    Map<Long, Product> existing = productRepository.findAllById(requested).stream()
+                            .collect(Collectors.toMap(Product::getId, Function.identity()));
+                    productRepository.deleteAllByIdInBatch(existing.keySet());
+                    existing.values().forEach(product ->
+                            eventPublisher.publishEvent(ProductChangedEvent.deleted(ProductMapper.toResponseDto(product))));
+                    for (Integer index : chunk) {
+                        Long id = ids.get(index);
+                        results[index] = existing.containsKey(id)
+                                ? success(index, id, BulkItemStatus.DELETED)
+                                : notFound(index, id);
+                    }
+                });
+            } catch (RuntimeException ex) {
+                for (Integer index : chunk) {
+                    Long id = ids.get(index);
+                    results[index] = persistSingle(index, id, () -> productRepository.findById(id)
+                            .map(product -> {
+                                productRepository.delete(product);
+                                productRepository.flush();
+                                eventPublisher.publishEvent(ProductChangedEvent.deleted(ProductMapper.toResponseDto(product)));
+                                return success(index, id, BulkItemStatus.DELETED);
+                            })
+                            .orElseGet(() -> notFound(index, id)));
+                }
+            }
+        }
+        return summarize(results);
+    }
+
+    private void checkLimit(int size) {
+        if (size > maxItems) {
+            throw new BulkLimitExceededException("Bulk requests are limited to " + maxItems + " items.");
+        }
+    }
+
+    // Records a FAILED result for every null or invalid item and returns the indexes of the valid ones
+    private <T> List<Integer> validate(List<T> items, BulkItemResultDTO[] results) {
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (item == null) {
+                results[i] = failure(i, null, Map.of("error", "Invalid item payload."));
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(item);
+            if (violations.isEmpty()) {
+                valid.add(i);
+            } else {
+                Map<String, String> errors = new HashMap<>();
+                violations.forEach(violation ->
+                        errors.put(violation.getPropertyPath().toString(), violation.getMessage())
+                );
+                Long id = item instanceof ProductBulkUpdateDTO update ? update.getId() : null;
+                results[i] = failure(i, id, errors);
+            }
+        }
+        return valid;
+    }
+
+    private BulkItemResultDTO persistSingle(int index, Long id, Supplier<BulkItemResultDTO> action) {
+        try {
+            return transactionTemplate.execute(status -> action.get());
+        } catch (RuntimeException ex) {
+            return failure(index, id, Map.of("error", "Could not persist item."));
+        }
+    }
+
+    private List<List<Integer>> chunks(List<Integer> indexes) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < indexes.size(); from += chunkSize) {
+            chunks.add(indexes.subList(from, Math.min(from + chunkSize, indexes.size())));
+        }
+        return chunks;
+    }
+
+    private BulkOperationResponseDTO summarize(BulkItemResultDTO[] results) {
+        int failed = (int) Arrays.stream(results)
+                .filter(result -> result.getStatus() == BulkItemStatus.FAILED)
+                .count();
+        return new BulkOperationResponseDTO(results.length, results.length - failed, failed, Arrays.asList(results));
+    }
+
+    private static BulkItemResultDTO success(int index, Long id, BulkItemStatus status) {
+        return new BulkItemResultDTO(index, id, status, null);
+    }
+
+    private static BulkItemResultDTO notFound(int index, Long id) {
+        return failure(index, id, Map.of("error", "Product not found with ID: " + id));
+    }
+
+    private static BulkItemResultDTO failure(int index, Long id, Map<String, String> errors) {
+        return new BulkItemResultDTO(index, id, BulkItemStatus.FAILED, errors);
+    }
+}
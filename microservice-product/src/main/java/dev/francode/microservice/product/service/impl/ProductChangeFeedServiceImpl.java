@@ -0,0 +1,70 @@
+package dev.francode.microservice.product.service.impl;
+
+import dev.francode.microservice.product.dto.ProductChangeDTO;
+import dev.francode.microservice.product.dto.ProductChangeFeedDTO;
+import dev.francode.microservice.product.exception.ChangeFeedExpiredException;
+import dev.francode.microservice.product.exception.InvalidCursorException;
+import dev.francode.microservice.product.repository.ProductChangeRepository;
+import dev.francode.microservice.product.service.interfaces.ProductChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Service
+public class ProductChangeFeedServiceImpl implements ProductChangeFeedService {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final ProductChangeRepository changeRepository;
+    // Explicit JPA transaction: the reactive profile also has an R2DBC transaction manager
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public ProductChangeFeedServiceImpl(ProductChangeRepository changeRepository,
+                                        PlatformTransactionManager transactionManager) {
+        this.changeRepository = changeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public ProductChangeFeedDTO getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new InvalidCursorException("Invalid change feed position: " + since);
+        }
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return readOnlyTransaction.execute(status -> read(since, size));
+    }
+
+    private ProductChangeFeedDTO read(long since, int size) {
+        // One extra row tells whether more changes are waiting
+        List<ProductChangeDTO> changes = changeRepository.findFeedAfter(since, PageRequest.of(0, size + 1));
+        if (changes.isEmpty() || changes.get(0).getPosition() != since + 1) {
+            checkRetained(since);
+        }
+        boolean hasMore = changes.size() > size;
+        List<ProductChangeDTO> content = hasMore ? changes.subList(0, size) : changes;
+        long next = content.isEmpty() ? since : content.get(content.size() - 1).getPosition();
+        return new ProductChangeFeedDTO(content, content.size(), hasMore, next);
+    }
+
+    // Positions are gap-free, so a page not starting at since + 1 means rows were purged, and a since beyond the
+    // newest position means the outbox was reset (the in-memory database does not survive a restart)
+    private void checkRetained(long since) {
+        Long minPosition = changeRepository.findMinPosition();
+        Long maxPosition = changeRepository.findMaxPosition();
+        long max = maxPosition == null ? 0 : maxPosition;
+        if (since > max) {
+            throw new ChangeFeedExpiredException("Change feed position " + since
+                    + " is past the end of the feed (" + max + "); restart from 0.");
+        }
+        if (minPosition != null && since < minPosition - 1) {
+            throw new ChangeFeedExpiredException("Changes after position " + since
+                    + " are no longer retained; reload the products and restart from " + max + ".");
+        }
+    }
+}
@@ -1,79 +1,216 @@
 package dev.francode.microservice.product.service.impl;
 
+import dev.francode.microservice.product.cache.ProductCache;
+import dev.francode.microservice.product.dto.CursorPageDTO;
+import dev.francode.microservice.product.dto.ProductLookupResponseDTO;
 import dev.francode.microservice.product.dto.ProductRequestDTO;
 import dev.francode.microservice.product.dto.ProductResponseDTO;
 import dev.francode.microservice.product.entity.Product;
+import dev.francode.microservice.product.event.ProductChangedEvent;
+import dev.francode.microservice.product.exception.BulkLimitExceededException;
 import dev.francode.microservice.product.exception.InvalidIdException;
+import dev.francode.microservice.product.exception.PreconditionFailedException;
 import dev.francode.microservice.product.exception.ProductNotFoundException;
+import dev.francode.microservice.product.filter.ProductFilterIndex;
+import dev.francode.microservice.product.lookup.ProductByIdBatcher;
 import dev.francode.microservice.product.mapper.ProductMapper;
+import dev.francode.microservice.product.pagination.ProductCursor;
 import dev.francode.microservice.product.repository.ProductRepository;
+import dev.francode.microservice.product.search.ProductSearchIndex;
+import dev.francode.microservice.product.search.ProductSearchResult;
 import dev.francode.microservice.product.service.interfaces.ProductService;
+import dev.francode.microservice.product.stats.ProductCatalogStats;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
+// Every public method is timed as product.service{class, method, exception}
 @Service
+@Timed(value = "product.service", histogram = true)
 public class ProductServiceImpl implements ProductService {
 
+    // Caffeine cache of ProductResponseDTO by id, configured under spring.cache in application.yml and read and
+    // filled through ProductCache
+    public static final String PRODUCT_CACHE = "products";
+
+    private static final int MAX_SCROLL_SIZE = 1000;
+    private static final int MAX_SUGGESTIONS = 50;
+    // Ids per IN query when loading search hits and filter results
+    private static final int ID_BATCH_SIZE = 1000;
+    // Largest NUMERIC(10, 2) price, the upper bound of an open-ended filter
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCatalogStats catalogStats;
+    private final ProductFilterIndex filterIndex;
+    private final ProductCache productCache;
+    private final ProductByIdBatcher productByIdBatcher;
+    private final int maxLookupIds;
+    private final TransactionTemplate readOnlyTransaction;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              ProductSearchIndex searchIndex,
+                              ProductCatalogStats catalogStats,
+                              ProductFilterIndex filterIndex,
+                              ProductCache productCache,
+                              ProductByIdBatcher productByIdBatcher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${product.lookup.max-ids:1000}") int maxLookupIds) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.catalogStats = catalogStats;
+        this.filterIndex = filterIndex;
+        this.productCache = productCache;
+        this.productByIdBatcher = productByIdBatcher;
+        this.maxLookupIds = maxLookupIds;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
+    // Cache misses arriving together are answered by one query (ProductByIdBatcher)
     @Override
     public Optional<ProductResponseDTO> getProductById(Long id) {
         validateId(id);
-        return productRepository.findById(id)
-                .map(ProductMapper::toResponseDto);
+        Optional<ProductResponseDTO> cached = productCache.get(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<ProductResponseDTO> product = productByIdBatcher.load(id);
+        product.ifPresent(productCache::putLoaded);
+        return product;
     }
 
     @Override
+    public ProductLookupResponseDTO getProductsByIds(List<Long> ids) {
+        List<Long> requested = distinctIds(ids);
+        Map<Long, ProductResponseDTO> found = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long id : requested) {
+            productCache.get(id).ifPresentOrElse(product -> found.put(id, product), () -> uncached.add(id));
+        }
+        for (int from = 0; from < uncached.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = uncached.subList(from, Math.min(from + ID_BATCH_SIZE, uncached.size()));
+            for (ProductResponseDTO product : productRepository.findViewsByIdIn(batch)) {
+                found.put(product.getId(), product);
+                productCache.putLoaded(product);
+            }
+        }
+
+        List<ProductResponseDTO> products = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            ProductResponseDTO product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new ProductLookupResponseDTO(products, missing);
+    }
+
+    @Override
+    @Transactional
     public ProductResponseDTO createProduct(ProductRequestDTO productRequest) {
         Product product = ProductMapper.toEntity(productRequest);
-        Product savedProduct = productRepository.save(product);
-        return ProductMapper.toResponseDto(savedProduct);
+        // Flushed so the response carries the generated version and timestamp
+        Product savedProduct = productRepository.saveAndFlush(product);
+        ProductResponseDTO createdProduct = ProductMapper.toResponseDto(savedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.created(createdProduct));
+        return createdProduct;
     }
 
     @Override
-    public ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequest) {
+    @Transactional
+    public ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequest, Set<Long> expectedVersions) {
         validateId(id);
 
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + id));
+        checkVersion(existingProduct, expectedVersions);
+        ProductResponseDTO previousProduct = ProductMapper.toResponseDto(existingProduct);
 
-        existingProduct.setName(productRequest.getName());
-        existingProduct.setDescription(productRequest.getDescription());
-        existingProduct.setStock(productRequest.getStock());
-        existingProduct.setPrice(productRequest.getPrice());
+        ProductMapper.updateEntity(existingProduct, productRequest);
 
-        Product updatedProduct = productRepository.save(existingProduct);
-        return ProductMapper.toResponseDto(updatedProduct);
+        // The flush runs the versioned UPDATE now, so a concurrent writer fails here and the new version is returned
+        Product updatedProduct = productRepository.saveAndFlush(existingProduct);
+        ProductResponseDTO updatedProductDto = ProductMapper.toResponseDto(updatedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(previousProduct, updatedProductDto));
+        return updatedProductDto;
     }
 
     @Override
     public Page<ProductResponseDTO> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable)
-                .map(ProductMapper::toResponseDto);
+        return productRepository.findAllViews(pageable);
     }
 
     @Override
-    public void deleteProduct(Long id) {
-        validateId(id);
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductResponseDTO> scrollProducts(String cursor, String sort, String direction, int size) {
+        ProductCursor position = cursor == null || cursor.isBlank()
+                ? ProductCursor.start(sort, direction)
+                : ProductCursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        // One extra row tells whether another page exists without running a count
+        PageRequest window = PageRequest.of(0, limit + 1);
 
-        if (!productRepository.existsById(id)) {
-            throw new ProductNotFoundException("Product not found with ID: " + id);
+        List<ProductResponseDTO> products;
+        if (ProductCursor.SORT_PRICE.equals(position.getSort())) {
+            products = position.isAscending()
+                    ? productRepository.findNextByPriceAsc(position.getPrice(), position.getId(), window)
+                    : productRepository.findNextByPriceDesc(position.getPrice(), position.getId(), window);
+        } else {
+            products = position.isAscending()
+                    ? productRepository.findNextByIdAsc(position.getId(), window)
+                    : productRepository.findNextByIdDesc(position.getId(), window);
         }
 
-        productRepository.deleteById(id);
+        boolean hasNext = products.size() > limit;
+        List<ProductResponseDTO> content = hasNext ? products.subList(0, limit) : products;
+        String nextCursor = hasNext ? position.after(content.get(content.size() - 1)).encode() : null;
+        return new CursorPageDTO<>(content, content.size(), hasNext, nextCursor);
+    }
+
+    @Override
+    @Transactional
+    public void deleteProduct(Long id, Set<Long> expectedVersions) {
+        validateId(id);
+
+        Product existingProduct = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + id));
+        checkVersion(existingProduct, expectedVersions);
+
+        productRepository.delete(existingProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(ProductMapper.toResponseDto(existingProduct)));
     }
 
     @Override
@@ -81,66 +218,113 @@ public class ProductServiceImpl implements ProductService {
         if (name == null || name.isBlank()) {
             throw new IllegalArgumentException("Search name cannot be null or empty");
         }
-        List<Product> products = productRepository.findByNameContainingIgnoreCase(name);
-        return products.stream()
-                .map(ProductMapper::toResponseDto)
-                .collect(Collectors.toList());
+        if (searchIndex.isReady()) {
+            return findAllInOrder(searchIndex.search(name, 0, Integer.MAX_VALUE).getProductIds());
+        }
+        return productRepository.findByNameContainingIgnoreCase(name);
+    }
+
+    @Override
+    public Page<ProductResponseDTO> searchProducts(String name, Pageable pageable) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Search name cannot be null or empty");
+        }
+        if (!searchIndex.isReady()) {
+            List<ProductResponseDTO> products = searchProductsByName(name);
+            int from = (int) Math.min(pageable.getOffset(), products.size());
+            int to = Math.min(from + pageable.getPageSize(), products.size());
+            return new PageImpl<>(products.subList(from, to), pageable, products.size());
+        }
+        ProductSearchResult result = searchIndex.search(name, (int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(findAllInOrder(result.getProductIds()), pageable, result.getTotal());
     }
 
+    @Override
+    public List<ProductResponseDTO> suggestProducts(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Suggestion prefix cannot be null or empty");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        if (!searchIndex.isReady()) {
+            return searchProductsByName(prefix).stream()
+                    .limit(size)
+                    .collect(Collectors.toList());
+        }
+        return findAllInOrder(searchIndex.suggest(prefix, size));
+    }
+
+    // The price and stock filters are answered by ProductFilterIndex once it is loaded, by the database until then
+
     @Override
     public List<ProductResponseDTO> getAvailableProducts() {
-        List<Product> products = productRepository.findByStockGreaterThan(0);
-        return products.stream()
-                .map(ProductMapper::toResponseDto)
-                .collect(Collectors.toList());
+        if (filterIndex.isReady()) {
+            return findFiltered(Long.MIN_VALUE, Long.MAX_VALUE, true);
+        }
+        return productRepository.findByStockGreaterThan(0);
     }
 
     @Override
     public List<ProductResponseDTO> getOutOfStockProducts() {
-        List<Product> products = productRepository.findByStockEquals(0);
-        return products.stream()
-                .map(ProductMapper::toResponseDto)
-                .collect(Collectors.toList());
+        if (filterIndex.isReady()) {
+            return findFiltered(Long.MIN_VALUE, Long.MAX_VALUE, false);
+        }
+        return productRepository.findByStockEquals(0);
     }
 
     @Override
     public List<ProductResponseDTO> getProductsCheaperThan(BigDecimal price) {
         validatePrice(price);
-        List<Product> products = productRepository.findByPriceLessThan(price);
-        return products.stream()
-                .map(ProductMapper::toResponseDto)
-                .collect(Collectors.toList());
+        if (filterIndex.isReady()) {
+            return findFiltered(Long.MIN_VALUE, ProductFilterIndex.centsAtLeast(price) - 1, null);
+        }
+        return productRepository.findByPriceLessThan(price);
     }
 
     @Override
     public List<ProductResponseDTO> getProductsMoreExpensiveThan(BigDecimal price) {
         validatePrice(price);
-        List<Product> products = productRepository.findByPriceGreaterThan(price);
-        return products.stream()
-                .map(ProductMapper::toResponseDto)
-                .collect(Collectors.toList());
+        if (filterIndex.isReady()) {
+            return findFiltered(ProductFilterIndex.centsAtMost(price) + 1, Long.MAX_VALUE, null);
+        }
+        return productRepository.findByPriceGreaterThan(price);
     }
 
     @Override
     public List<ProductResponseDTO> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        validatePrice(minPrice);
-        validatePrice(maxPrice);
-        if (minPrice.compareTo(maxPrice) > 0) {
-            throw new IllegalArgumentException("Min price cannot be greater than max price");
+        validatePriceRange(minPrice, maxPrice);
+        if (filterIndex.isReady()) {
+            return findFiltered(ProductFilterIndex.centsAtLeast(minPrice), ProductFilterIndex.centsAtMost(maxPrice),
+                    null);
+        }
+        return productRepository.findByPriceBetween(minPrice, maxPrice);
+    }
+
+    @Override
+    public List<ProductResponseDTO> filterProducts(BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+        BigDecimal min = minPrice == null ? BigDecimal.ZERO : minPrice;
+        BigDecimal max = maxPrice == null ? MAX_PRICE : maxPrice;
+        validatePriceRange(min, max);
+        if (filterIndex.isReady()) {
+            return findFiltered(ProductFilterIndex.centsAtLeast(min), ProductFilterIndex.centsAtMost(max), inStock);
         }
-        List<Product> products = productRepository.findByPriceBetween(minPrice, maxPrice);
-        return products.stream()
-                .map(ProductMapper::toResponseDto)
-                .collect(Collectors.toList());
+        int minStock = Boolean.TRUE.equals(inStock) ? 1 : 0;
+        int maxStock = Boolean.FALSE.equals(inStock) ? 0 : Integer.MAX_VALUE;
+        return productRepository.findByPriceBetweenAndStockBetween(min, max, minStock, maxStock);
     }
 
     @Override
     public long countAllProducts() {
+        if (catalogStats.isReady()) {
+            return catalogStats.count();
+        }
         return productRepository.count();
     }
 
     @Override
     public long countAvailableProducts() {
+        if (catalogStats.isReady()) {
+            return catalogStats.availableCount();
+        }
         return productRepository.countByStockGreaterThan(0);
     }
 
@@ -149,23 +333,158 @@ public class ProductServiceImpl implements ProductService {
         if (name == null || name.isBlank()) {
             throw new IllegalArgumentException("Name for count cannot be null or empty");
         }
+        if (searchIndex.isReady()) {
+            return searchIndex.count(name);
+        }
         return productRepository.countByNameContainingIgnoreCase(name);
     }
 
     @Override
     public Optional<ProductResponseDTO> getMostExpensiveProduct() {
-        List<Product> products = productRepository.findTop1ByOrderByPriceDesc();
-        return products.stream()
-                .findFirst()
-                .map(ProductMapper::toResponseDto);
+        if (catalogStats.isReady()) {
+            return catalogStats.mostExpensiveId().flatMap(this::findCachedById);
+        }
+        return productRepository.findTopByPriceDesc(PageRequest.of(0, 1)).stream()
+                .findFirst();
     }
 
     @Override
     public Optional<ProductResponseDTO> getCheapestProduct() {
-        List<Product> products = productRepository.findTop1ByOrderByPriceAsc();
-        return products.stream()
-                .findFirst()
-                .map(ProductMapper::toResponseDto);
+        if (catalogStats.isReady()) {
+            return catalogStats.cheapestId().flatMap(this::findCachedById);
+        }
+        return productRepository.findTopByPriceAsc(PageRequest.of(0, 1)).stream()
+                .findFirst();
+    }
+
+    @Override
+    public void streamAvailableProducts(Consumer<ProductResponseDTO> consumer) {
+        if (filterIndex.isReady()) {
+            forEachFiltered(Long.MIN_VALUE, Long.MAX_VALUE, true, consumer);
+            return;
+        }
+        forEach(() -> productRepository.streamByStockGreaterThan(0), consumer);
+    }
+
+    @Override
+    public void streamOutOfStockProducts(Consumer<ProductResponseDTO> consumer) {
+        if (filterIndex.isReady()) {
+            forEachFiltered(Long.MIN_VALUE, Long.MAX_VALUE, false, consumer);
+            return;
+        }
+        forEach(() -> productRepository.streamByStockEquals(0), consumer);
+    }
+
+    @Override
+    public void streamProductsCheaperThan(BigDecimal price, Consumer<ProductResponseDTO> consumer) {
+        validatePrice(price);
+        if (filterIndex.isReady()) {
+            forEachFiltered(Long.MIN_VALUE, ProductFilterIndex.centsAtLeast(price) - 1, null, consumer);
+            return;
+        }
+        forEach(() -> productRepository.streamByPriceLessThan(price), consumer);
+    }
+
+    @Override
+    public void streamProductsMoreExpensiveThan(BigDecimal price, Consumer<ProductResponseDTO> consumer) {
+        validatePrice(price);
+        if (filterIndex.isReady()) {
+            forEachFiltered(ProductFilterIndex.centsAtMost(price) + 1, Long.MAX_VALUE, null, consumer);
+            return;
+        }
+        forEach(() -> productRepository.streamByPriceGreaterThan(price), consumer);
+    }
+
+    @Override
+    public void streamProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Consumer<ProductResponseDTO> consumer) {
+        validatePriceRange(minPrice, maxPrice);
+        if (filterIndex.isReady()) {
+            forEachFiltered(ProductFilterIndex.centsAtLeast(minPrice), ProductFilterIndex.centsAtMost(maxPrice), null,
+                    consumer);
+            return;
+        }
+        forEach(() -> productRepository.streamByPriceBetween(minPrice, maxPrice), consumer);
+    }
+
+    // Hands over each projected row; nothing is managed, so the persistence context does not grow with the result.
+    // The transaction is only opened here: a stream served by the filter index never takes a connection.
+    private void forEach(Supplier<Stream<ProductResponseDTO>> query, Consumer<ProductResponseDTO> consumer) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ProductResponseDTO> products = query.get()) {
+                products.forEach(consumer);
+            }
+        });
+    }
+
+    private List<ProductResponseDTO> findFiltered(long minCents, long maxCents, Boolean inStock) {
+        List<ProductResponseDTO> products = new ArrayList<>();
+        forEachFiltered(minCents, maxCents, inStock, products::add);
+        return products;
+    }
+
+    // Loads the products the filter index found, in its order, one batch of ids at a time: cached ones from the
+    // product cache, the others with one IN query per batch. Those are not cached, so a broad filter does not push
+    // the hot products out. A product that changed after the index answered and no longer matches is skipped.
+    private void forEachFiltered(long minCents, long maxCents, Boolean inStock, Consumer<ProductResponseDTO> consumer) {
+        long[] ids = filterIndex.find(minCents, maxCents, inStock);
+        for (int from = 0; from < ids.length; from += ID_BATCH_SIZE) {
+            int to = Math.min(from + ID_BATCH_SIZE, ids.length);
+            Map<Long, ProductResponseDTO> found = new HashMap<>();
+            List<Long> uncached = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                long id = ids[i];
+                productCache.get(id).ifPresentOrElse(product -> found.put(id, product), () -> uncached.add(id));
+            }
+            if (!uncached.isEmpty()) {
+                productRepository.findViewsByIdIn(uncached).forEach(product -> found.put(product.getId(), product));
+            }
+            for (int i = from; i < to; i++) {
+                ProductResponseDTO product = found.get(ids[i]);
+                if (product != null && ProductFilterIndex.matches(product, minCents, maxCents, inStock)) {
+                    consumer.accept(product);
+                }
+            }
+        }
+    }
+
+    // Resolves a product through the product cache, caching it on a miss
+    private Optional<ProductResponseDTO> findCachedById(Long id) {
+        Optional<ProductResponseDTO> cached = productCache.get(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<ProductResponseDTO> product = productRepository.findViewById(id);
+        product.ifPresent(productCache::putLoaded);
+        return product;
+    }
+
+    // Loads the given products keeping the order of the ids; ids deleted in the meantime are skipped
+    private List<ProductResponseDTO> findAllInOrder(List<Long> ids) {
+        List<ProductResponseDTO> products = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size()));
+            Map<Long, ProductResponseDTO> found = productRepository.findViewsByIdIn(batch).stream()
+                    .collect(Collectors.toMap(ProductResponseDTO::getId, Function.identity()));
+            for (Long id : batch) {
+                ProductResponseDTO product = found.get(id);
+                if (product != null) {
+                    products.add(product);
+                }
+            }
+        }
+        return products;
+    }
+
+    // Validated ids in request order, each once
+    private List<Long> distinctIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidIdException("At least one product ID is required.");
+        }
+        if (ids.size() > maxLookupIds) {
+            throw new BulkLimitExceededException("Lookups are limited to " + maxLookupIds + " IDs.");
+        }
+        ids.forEach(this::validateId);
+        return new ArrayList<>(new LinkedHashSet<>(ids));
     }
 
     private void validatePrice(BigDecimal price) {
@@ -174,9 +493,24 @@ public class ProductServiceImpl implements ProductService {
         }
     }
 
+    private void validatePriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        validatePrice(minPrice);
+        validatePrice(maxPrice);
+        if (minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("Min price cannot be greater than max price");
+        }
+    }
+
     private void validateId(Long id) {
         if (id == null || id <= 0) {
             throw new InvalidIdException("Invalid product ID: " + id);
         }
     }
+
+    private void checkVersion(Product product, Set<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(product.getVersion())) {
+            throw new PreconditionFailedException("Product with ID: " + product.getId()
+                    + " has changed, current version is " + product.getVersion());
+        }
+    }
 }
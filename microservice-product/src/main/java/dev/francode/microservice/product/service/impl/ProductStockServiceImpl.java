@@ -0,0 +1,107 @@
+package dev.francode.microservice.product.service.impl;
+
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.dto.StockLineDTO;
+import dev.francode.microservice.product.event.ProductChangedEvent;
+import dev.francode.microservice.product.exception.InsufficientStockException;
+import dev.francode.microservice.product.exception.InvalidIdException;
+import dev.francode.microservice.product.exception.InvalidStockQuantityException;
+import dev.francode.microservice.product.exception.ProductNotFoundException;
+import dev.francode.microservice.product.repository.ProductRepository;
+import dev.francode.microservice.product.service.interfaces.ProductStockService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+@Service
+@Timed(value = "product.service", histogram = true)
+public class ProductStockServiceImpl implements ProductStockService {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public ProductStockServiceImpl(ProductRepository productRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public List<ProductResponseDTO> reserveStock(List<StockLineDTO> lines) {
+        return apply(lines, -1);
+    }
+
+    @Override
+    public List<ProductResponseDTO> releaseStock(List<StockLineDTO> lines) {
+        return apply(lines, 1);
+    }
+
+    private List<ProductResponseDTO> apply(List<StockLineDTO> lines, int sign) {
+        SortedMap<Long, Integer> quantities = merge(lines);
+
+        List<ProductResponseDTO> changed = transactionTemplate.execute(status -> {
+            // Rows are locked in id order, so two overlapping batches can never deadlock each other
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                int updated = sign < 0
+                        ? productRepository.decrementStock(line.getKey(), line.getValue())
+                        : productRepository.incrementStock(line.getKey(), line.getValue());
+                if (updated == 0) {
+                    // Throwing rolls back the lines already applied
+                    if (!productRepository.existsById(line.getKey())) {
+                        throw new ProductNotFoundException("Product not found with ID: " + line.getKey());
+                    }
+                    throw sign < 0
+                            ? new InsufficientStockException("Insufficient stock for product with ID: " + line.getKey())
+                            : new InvalidStockQuantityException("Releasing " + line.getValue()
+                                    + " would exceed the maximum stock for product with ID: " + line.getKey());
+                }
+            }
+            List<ProductResponseDTO> after = new ArrayList<>(productRepository.findViewsByIdIn(quantities.keySet()));
+            after.sort(Comparator.comparing(ProductResponseDTO::getId));
+            for (ProductResponseDTO product : after) {
+                ProductResponseDTO before = new ProductResponseDTO(product.getId(), product.getName(),
+                        product.getDescription(), product.getStock() - sign * quantities.get(product.getId()),
+                        product.getPrice(), product.getVersion() - 1, null);
+                eventPublisher.publishEvent(ProductChangedEvent.updated(before, product));
+            }
+            return after;
+        });
+
+        // The product cache picks up the new versions from the committed events (ProductCache)
+        return changed;
+    }
+
+    // Adds up the quantities of lines that target the same product; no total can pass what a stock column holds
+    private SortedMap<Long, Integer> merge(List<StockLineDTO> lines) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (StockLineDTO line : lines) {
+            if (line.getProductId() == null || line.getProductId() <= 0) {
+                throw new InvalidIdException("Invalid product ID: " + line.getProductId());
+            }
+            if (line.getQuantity() == null || line.getQuantity() < 1) {
+                throw new InvalidStockQuantityException("Quantity must be at least 1 for product with ID: "
+                        + line.getProductId());
+            }
+            long total = (long) quantities.getOrDefault(line.getProductId(), 0) + line.getQuantity();
+            if (total > Integer.MAX_VALUE) {
+                throw new InvalidStockQuantityException("Total quantity exceeds " + Integer.MAX_VALUE
+                        + " for product with ID: " + line.getProductId());
+            }
+            quantities.put(line.getProductId(), (int) total);
+        }
+        return quantities;
+    }
+}
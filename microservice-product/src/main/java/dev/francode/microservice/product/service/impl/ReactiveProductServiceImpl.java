@@ -0,0 +1,492 @@
+package dev.francode.microservice.product.service.impl;
+
+import dev.francode.microservice.product.cache.ProductCache;
+import dev.francode.microservice.product.dto.CursorPageDTO;
+import dev.francode.microservice.product.dto.ProductLookupResponseDTO;
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.entity.ProductRow;
+import dev.francode.microservice.product.event.ProductChangedEvent;
+import dev.francode.microservice.product.exception.BulkLimitExceededException;
+import dev.francode.microservice.product.exception.InvalidIdException;
+import dev.francode.microservice.product.exception.PreconditionFailedException;
+import dev.francode.microservice.product.exception.ProductNotFoundException;
+import dev.francode.microservice.product.filter.ProductFilterIndex;
+import dev.francode.microservice.product.mapper.ProductMapper;
+import dev.francode.microservice.product.pagination.ProductCursor;
+import dev.francode.microservice.product.outbox.ReactiveProductOutbox;
+import dev.francode.microservice.product.repository.ReactivePooledSequence;
+import dev.francode.microservice.product.repository.ReactiveProductRepository;
+import dev.francode.microservice.product.search.ProductSearchIndex;
+import dev.francode.microservice.product.search.ProductSearchResult;
+import dev.francode.microservice.product.service.interfaces.ReactiveProductService;
+import dev.francode.microservice.product.stats.ProductCatalogStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Same behaviour as ProductServiceImpl on R2DBC: same validation, exceptions, product cache and change events.
+// The outbox row of each write is inserted in the write's own transaction.
+// Events are published once the transaction has committed, which is what the @TransactionalEventListener
+// read models (search index, catalog stats, filter index) expect.
+@Service
+@Profile("reactive")
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+
+    private static final int MAX_SCROLL_SIZE = 1000;
+    private static final int MAX_SUGGESTIONS = 50;
+    // Ids per IN query when loading search hits and filter results
+    private static final int ID_BATCH_SIZE = 1000;
+    // Largest NUMERIC(10, 2) price, the upper bound of an open-ended filter
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+    // Must match the product_seq increment and allocationSize on Product.id
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final ReactiveProductRepository productRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCatalogStats catalogStats;
+    private final ProductFilterIndex filterIndex;
+    private final ProductCache productCache;
+    private final ReactiveProductOutbox outbox;
+    private final int maxLookupIds;
+
+    // Ids from product_seq, in the blocks Hibernate also uses for Product.id
+    private final ReactivePooledSequence idSequence;
+
+    @Autowired
+    public ReactiveProductServiceImpl(ReactiveProductRepository productRepository,
+                                      TransactionalOperator transactionalOperator,
+                                      ApplicationEventPublisher eventPublisher,
+                                      ProductSearchIndex searchIndex,
+                                      ProductCatalogStats catalogStats,
+                                      ProductFilterIndex filterIndex,
+                                      ProductCache productCache,
+                                      ReactiveProductOutbox outbox,
+                                      @Value("${product.lookup.max-ids:1000}") int maxLookupIds) {
+        this.productRepository = productRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.catalogStats = catalogStats;
+        this.filterIndex = filterIndex;
+        this.productCache = productCache;
+        this.outbox = outbox;
+        this.maxLookupIds = maxLookupIds;
+        this.idSequence = new ReactivePooledSequence(productRepository::nextSequenceValue, ID_ALLOCATION_SIZE);
+    }
+
+    @Override
+    public Mono<ProductResponseDTO> getProductById(Long id) {
+        return Mono.defer(() -> {
+            validateId(id);
+            return findCachedById(id);
+        });
+    }
+
+    @Override
+    public Mono<ProductLookupResponseDTO> getProductsByIds(List<Long> ids) {
+        return Mono.defer(() -> {
+            List<Long> requested = distinctIds(ids);
+            Map<Long, ProductResponseDTO> found = new HashMap<>();
+            List<Long> uncached = new ArrayList<>();
+            for (Long id : requested) {
+                productCache.get(id).ifPresentOrElse(product -> found.put(id, product), () -> uncached.add(id));
+            }
+            return Flux.range(0, (uncached.size() + ID_BATCH_SIZE - 1) / ID_BATCH_SIZE)
+                    .concatMap(batch -> productRepository.findAllById(uncached.subList(batch * ID_BATCH_SIZE,
+                            Math.min((batch + 1) * ID_BATCH_SIZE, uncached.size()))))
+                    .map(ProductMapper::toResponseDto)
+                    .doOnNext(productCache::putLoaded)
+                    .collectMap(ProductResponseDTO::getId, Function.identity(), () -> found)
+                    .map(products -> {
+                        List<ProductResponseDTO> inOrder = new ArrayList<>(products.size());
+                        List<Long> missing = new ArrayList<>();
+                        for (Long id : requested) {
+                            ProductResponseDTO product = products.get(id);
+                            if (product != null) {
+                                inOrder.add(product);
+                            } else {
+                                missing.add(id);
+                            }
+                        }
+                        return new ProductLookupResponseDTO(inOrder, missing);
+                    });
+        });
+    }
+
+    @Override
+    public Mono<ProductResponseDTO> createProduct(ProductRequestDTO productRequest) {
+        return Mono.defer(() -> {
+            ProductRow row = ProductMapper.toRow(productRequest);
+            row.setUpdatedAt(now());
+            return idSequence.next()
+                    .flatMap(id -> {
+                        row.setId(id);
+                        return productRepository.save(row);
+                    })
+                    .map(saved -> ProductChangedEvent.created(ProductMapper.toResponseDto(saved)))
+                    .flatMap(outbox::append)
+                    .as(transactionalOperator::transactional)
+                    .doOnNext(this::committed)
+                    .map(ProductChangedEvent::getAfter);
+        });
+    }
+
+    @Override
+    public Mono<ProductResponseDTO> updateProduct(Long id, ProductRequestDTO productRequest,
+                                                  Set<Long> expectedVersions) {
+        return Mono.defer(() -> {
+            validateId(id);
+            return findExisting(id)
+                    .flatMap(row -> {
+                        checkVersion(row, expectedVersions);
+                        ProductResponseDTO previousProduct = ProductMapper.toResponseDto(row);
+                        ProductMapper.updateRow(row, productRequest);
+                        row.setUpdatedAt(now());
+                        // Versioned UPDATE: a concurrent writer makes it fail with OptimisticLockingFailureException
+                        return productRepository.save(row)
+                                .map(saved -> ProductChangedEvent.updated(previousProduct, ProductMapper.toResponseDto(saved)));
+                    })
+                    .flatMap(outbox::append)
+                    .as(transactionalOperator::transactional)
+                    .doOnNext(this::committed)
+                    .map(ProductChangedEvent::getAfter);
+        });
+    }
+
+    @Override
+    public Mono<Page<ProductResponseDTO>> getAllProducts(Pageable pageable) {
+        return productRepository.findAllBy(pageable)
+                .map(ProductMapper::toResponseDto)
+                .collectList()
+                .zipWith(productRepository.count(), (content, total) -> new PageImpl<>(content, pageable, total));
+    }
+
+    @Override
+    public Mono<CursorPageDTO<ProductResponseDTO>> scrollProducts(String cursor, String sort, String direction, int size) {
+        return Mono.defer(() -> {
+            ProductCursor position = cursor == null || cursor.isBlank()
+                    ? ProductCursor.start(sort, direction)
+                    : ProductCursor.decode(cursor);
+            int limit = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+            // One extra row tells whether another page exists without running a count
+            int window = limit + 1;
+
+            Flux<ProductRow> rows;
+            if (ProductCursor.SORT_PRICE.equals(position.getSort())) {
+                rows = position.isAscending()
+                        ? productRepository.findNextByPriceAsc(position.getPrice(), position.getId(), window)
+                        : productRepository.findNextByPriceDesc(position.getPrice(), position.getId(), window);
+            } else {
+                rows = position.isAscending()
+                        ? productRepository.findNextByIdAsc(position.getId(), window)
+                        : productRepository.findNextByIdDesc(position.getId(), window);
+            }
+
+            return rows.map(ProductMapper::toResponseDto).collectList().map(products -> {
+                boolean hasNext = products.size() > limit;
+                List<ProductResponseDTO> content = hasNext ? products.subList(0, limit) : products;
+                String nextCursor = hasNext ? position.after(content.get(content.size() - 1)).encode() : null;
+                return new CursorPageDTO<>(content, content.size(), hasNext, nextCursor);
+            });
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteProduct(Long id, Set<Long> expectedVersions) {
+        return Mono.defer(() -> {
+            validateId(id);
+            return findExisting(id)
+                    .flatMap(row -> {
+                        checkVersion(row, expectedVersions);
+                        return productRepository.delete(row)
+                                .thenReturn(ProductChangedEvent.deleted(ProductMapper.toResponseDto(row)));
+                    })
+                    .flatMap(outbox::append)
+                    .as(transactionalOperator::transactional)
+                    .doOnNext(this::committed)
+                    .then();
+        });
+    }
+
+    @Override
+    public Flux<ProductResponseDTO> searchProductsByName(String name) {
+        return Flux.defer(() -> {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Search name cannot be null or empty");
+            }
+            if (searchIndex.isReady()) {
+                return findAllInOrder(searchIndex.search(name, 0, Integer.MAX_VALUE).getProductIds());
+            }
+            return productRepository.findByNameContainingIgnoreCase(name).map(ProductMapper::toResponseDto);
+        });
+    }
+
+    @Override
+    public Mono<Page<ProductResponseDTO>> searchProducts(String name, Pageable pageable) {
+        return Mono.defer(() -> {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Search name cannot be null or empty");
+            }
+            if (!searchIndex.isReady()) {
+                return searchProductsByName(name).collectList().map(products -> {
+                    int from = (int) Math.min(pageable.getOffset(), products.size());
+                    int to = Math.min(from + pageable.getPageSize(), products.size());
+                    return new PageImpl<>(products.subList(from, to), pageable, products.size());
+                });
+            }
+            ProductSearchResult result = searchIndex.search(name, (int) pageable.getOffset(), pageable.getPageSize());
+            return findAllInOrder(result.getProductIds()).collectList()
+                    .map(products -> new PageImpl<>(products, pageable, result.getTotal()));
+        });
+    }
+
+    @Override
+    public Flux<ProductResponseDTO> suggestProducts(String prefix, int limit) {
+        return Flux.defer(() -> {
+            if (prefix == null || prefix.isBlank()) {
+                throw new IllegalArgumentException("Suggestion prefix cannot be null or empty");
+            }
+            int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+            if (!searchIndex.isReady()) {
+                return searchProductsByName(prefix).take(size);
+            }
+            return findAllInOrder(searchIndex.suggest(prefix, size));
+        });
+    }
+
+    // The price and stock filters are answered by ProductFilterIndex once it is loaded, by the database until then
+
+    @Override
+    public Flux<ProductResponseDTO> getAvailableProducts() {
+        return Flux.defer(() -> filterIndex.isReady()
+                ? findFiltered(Long.MIN_VALUE, Long.MAX_VALUE, true)
+                : productRepository.findByStockGreaterThan(0).map(ProductMapper::toResponseDto));
+    }
+
+    @Override
+    public Flux<ProductResponseDTO> getOutOfStockProducts() {
+        return Flux.defer(() -> filterIndex.isReady()
+                ? findFiltered(Long.MIN_VALUE, Long.MAX_VALUE, false)
+                : productRepository.findByStock(0).map(ProductMapper::toResponseDto));
+    }
+
+    @Override
+    public Flux<ProductResponseDTO> getProductsCheaperThan(BigDecimal price) {
+        return Flux.defer(() -> {
+            validatePrice(price);
+            if (filterIndex.isReady()) {
+                return findFiltered(Long.MIN_VALUE, ProductFilterIndex.centsAtLeast(price) - 1, null);
+            }
+            return productRepository.findByPriceLessThan(price).map(ProductMapper::toResponseDto);
+        });
+    }
+
+    @Override
+    public Flux<ProductResponseDTO> getProductsMoreExpensiveThan(BigDecimal price) {
+        return Flux.defer(() -> {
+            validatePrice(price);
+            if (filterIndex.isReady()) {
+                return findFiltered(ProductFilterIndex.centsAtMost(price) + 1, Long.MAX_VALUE, null);
+            }
+            return productRepository.findByPriceGreaterThan(price).map(ProductMapper::toResponseDto);
+        });
+    }
+
+    @Override
+    public Flux<ProductResponseDTO> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return Flux.defer(() -> {
+            validatePriceRange(minPrice, maxPrice);
+            if (filterIndex.isReady()) {
+                return findFiltered(ProductFilterIndex.centsAtLeast(minPrice),
+                        ProductFilterIndex.centsAtMost(maxPrice), null);
+            }
+            return productRepository.findByPriceBetween(minPrice, maxPrice).map(ProductMapper::toResponseDto);
+        });
+    }
+
+    @Override
+    public Flux<ProductResponseDTO> filterProducts(BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+        return Flux.defer(() -> {
+            BigDecimal min = minPrice == null ? BigDecimal.ZERO : minPrice;
+            BigDecimal max = maxPrice == null ? MAX_PRICE : maxPrice;
+            validatePriceRange(min, max);
+            if (filterIndex.isReady()) {
+                return findFiltered(ProductFilterIndex.centsAtLeast(min), ProductFilterIndex.centsAtMost(max), inStock);
+            }
+            int minStock = Boolean.TRUE.equals(inStock) ? 1 : 0;
+            int maxStock = Boolean.FALSE.equals(inStock) ? 0 : Integer.MAX_VALUE;
+            return productRepository.findByPriceBetweenAndStockBetweenOrderByPriceAscIdAsc(min, max, minStock, maxStock)
+                    .map(ProductMapper::toResponseDto);
+        });
+    }
+
+    @Override
+    public Mono<Long> countAllProducts() {
+        return Mono.defer(() -> catalogStats.isReady()
+                ? Mono.just(catalogStats.count())
+                : productRepository.count());
+    }
+
+    @Override
+    public Mono<Long> countAvailableProducts() {
+        return Mono.defer(() -> catalogStats.isReady()
+                ? Mono.just(catalogStats.availableCount())
+                : productRepository.countByStockGreaterThan(0));
+    }
+
+    @Override
+    public Mono<Long> countProductsByName(String name) {
+        return Mono.defer(() -> {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Name for count cannot be null or empty");
+            }
+            if (searchIndex.isReady()) {
+                return Mono.just((long) searchIndex.count(name));
+            }
+            return productRepository.countByNameContainingIgnoreCase(name);
+        });
+    }
+
+    @Override
+    public Mono<ProductResponseDTO> getMostExpensiveProduct() {
+        return Mono.defer(() -> catalogStats.isReady()
+                ? Mono.justOrEmpty(catalogStats.mostExpensiveId()).flatMap(this::findCachedById)
+                : productRepository.findFirstByOrderByPriceDescIdDesc().map(ProductMapper::toResponseDto));
+    }
+
+    @Override
+    public Mono<ProductResponseDTO> getCheapestProduct() {
+        return Mono.defer(() -> catalogStats.isReady()
+                ? Mono.justOrEmpty(catalogStats.cheapestId()).flatMap(this::findCachedById)
+                : productRepository.findFirstByOrderByPriceAscIdAsc().map(ProductMapper::toResponseDto));
+    }
+
+    // Resolves a product through the product cache, caching it on a miss
+    private Mono<ProductResponseDTO> findCachedById(Long id) {
+        return Mono.justOrEmpty(productCache.get(id))
+                .switchIfEmpty(Mono.defer(() -> productRepository.findById(id)
+                        .map(ProductMapper::toResponseDto)
+                        .doOnNext(productCache::putLoaded)));
+    }
+
+    private Mono<ProductRow> findExisting(Long id) {
+        return productRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product not found with ID: " + id)));
+    }
+
+    // Loads the given products keeping the order of the ids; ids deleted in the meantime are skipped
+    private Flux<ProductResponseDTO> findAllInOrder(List<Long> ids) {
+        return Flux.range(0, (ids.size() + ID_BATCH_SIZE - 1) / ID_BATCH_SIZE)
+                .map(batch -> ids.subList(batch * ID_BATCH_SIZE, Math.min((batch + 1) * ID_BATCH_SIZE, ids.size())))
+                .concatMap(batch -> productRepository.findAllById(batch)
+                        .collectMap(ProductRow::getId, ProductMapper::toResponseDto)
+                        .flatMapIterable(found -> batch.stream()
+                                .map(found::get)
+                                .filter(product -> product != null)
+                                .toList()));
+    }
+
+    // Loads the products the filter index found, in its order, as in ProductServiceImpl: per batch of ids, cached
+    // ones from the product cache and the others with one IN query, without caching them. A product that changed
+    // after the index answered and no longer matches is skipped.
+    private Flux<ProductResponseDTO> findFiltered(long minCents, long maxCents, Boolean inStock) {
+        long[] ids = filterIndex.find(minCents, maxCents, inStock);
+        return Flux.range(0, (ids.length + ID_BATCH_SIZE - 1) / ID_BATCH_SIZE)
+                .concatMap(batch -> {
+                    int from = batch * ID_BATCH_SIZE;
+                    int to = Math.min(from + ID_BATCH_SIZE, ids.length);
+                    Map<Long, ProductResponseDTO> found = new HashMap<>();
+                    List<Long> uncached = new ArrayList<>();
+                    for (int i = from; i < to; i++) {
+                        long id = ids[i];
+                        productCache.get(id).ifPresentOrElse(product -> found.put(id, product),
+                                () -> uncached.add(id));
+                    }
+                    Mono<Map<Long, ProductResponseDTO>> loaded = uncached.isEmpty()
+                            ? Mono.just(found)
+                            : productRepository.findAllById(uncached)
+                                    .collectMap(ProductRow::getId, ProductMapper::toResponseDto, () -> found);
+                    return loaded.flatMapIterable(products -> {
+                        List<ProductResponseDTO> inOrder = new ArrayList<>(to - from);
+                        for (int i = from; i < to; i++) {
+                            ProductResponseDTO product = products.get(ids[i]);
+                            if (product != null && ProductFilterIndex.matches(product, minCents, maxCents, inStock)) {
+                                inOrder.add(product);
+                            }
+                        }
+                        return inOrder;
+                    });
+                });
+    }
+
+    // Tells the product cache and the in-memory read models about the committed change
+    private void committed(ProductChangedEvent event) {
+        eventPublisher.publishEvent(event);
+    }
+
+    // Same precision as the updated_at column, so the returned product matches what is read back later
+    private Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // Validated ids in request order, each once
+    private List<Long> distinctIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidIdException("At least one product ID is required.");
+        }
+        if (ids.size() > maxLookupIds) {
+            throw new BulkLimitExceededException("Lookups are limited to " + maxLookupIds + " IDs.");
+        }
+        ids.forEach(this::validateId);
+        return new ArrayList<>(new LinkedHashSet<>(ids));
+    }
+
+    private void validatePrice(BigDecimal price) {
+        if (price == null || price.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Price must be non-null and non-negative");
+        }
+    }
+
+    private void validatePriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        validatePrice(minPrice);
+        validatePrice(maxPrice);
+        if (minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("Min price cannot be greater than max price");
+        }
+    }
+
+    private void validateId(Long id) {
+        if (id == null || id <= 0) {
+            throw new InvalidIdException("Invalid product ID: " + id);
+        }
+    }
+
+    private void checkVersion(ProductRow row, Set<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(row.getVersion())) {
+            throw new PreconditionFailedException("Product with ID: " + row.getId()
+                    + " has changed, current version is " + row.getVersion());
+        }
+    }
+}
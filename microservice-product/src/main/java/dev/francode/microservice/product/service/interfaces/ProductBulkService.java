@@ -0,0 +1,19 @@
+package dev.francode.microservice.product.service.interfaces;
+
+import dev.francode.microservice.product.dto.BulkOperationResponseDTO;
+import dev.francode.microservice.product.dto.ProductBulkUpdateDTO;
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+
+import java.util.List;
+
+public interface ProductBulkService {
+
+    // Items are persisted in chunks; a null item stands for an entry that could not be parsed.
+    // One bad item never fails the rest of the request: every item gets its own result.
+
+    BulkOperationResponseDTO createProducts(List<ProductRequestDTO> productRequests);
+
+    BulkOperationResponseDTO updateProducts(List<ProductBulkUpdateDTO> productUpdates);
+
+    BulkOperationResponseDTO deleteProducts(List<Long> ids);
+}
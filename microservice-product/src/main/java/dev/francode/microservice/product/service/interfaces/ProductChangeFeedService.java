@@ -0,0 +1,11 @@
+package dev.francode.microservice.product.service.interfaces;
+
+import dev.francode.microservice.product.dto.ProductChangeFeedDTO;
+
+public interface ProductChangeFeedService {
+
+    // Published changes after the given position (0 for the start of the feed), oldest first, at most limit.
+    // Throws ChangeFeedExpiredException when changes after since are no longer retained or since is past the
+    // end of the feed (the feed was reset); the consumer has to reload and start again from 0.
+    ProductChangeFeedDTO getChanges(long since, int limit);
+}
@@ -1,5 +1,7 @@
 package dev.francode.microservice.product.service.interfaces;
 
+import dev.francode.microservice.product.dto.CursorPageDTO;
+import dev.francode.microservice.product.dto.ProductLookupResponseDTO;
 import dev.francode.microservice.product.dto.ProductRequestDTO;
 import dev.francode.microservice.product.dto.ProductResponseDTO;
 import org.springframework.data.domain.Page;
@@ -9,22 +11,35 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Repository
 public interface ProductService {
 
     // Basic CRUD
     Optional<ProductResponseDTO> getProductById(Long id);
+    // Several products at once, in request order; ids without a product are listed as missing
+    ProductLookupResponseDTO getProductsByIds(List<Long> ids);
     ProductResponseDTO createProduct(ProductRequestDTO productRequest);
-    ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequest);
+    // expectedVersions come from If-Match, any of them may be current; null skips the check
+    ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequest, Set<Long> expectedVersions);
     Page<ProductResponseDTO> getAllProducts(Pageable pageable);
-    void deleteProduct(Long id);
+    // Keyset pagination by id or (price, id); cursor is null for the first page
+    CursorPageDTO<ProductResponseDTO> scrollProducts(String cursor, String sort, String direction, int size);
+    void deleteProduct(Long id, Set<Long> expectedVersions);
 
     // Advanced query methods for chatbot
 
-    // Find products by partial name (case-insensitive)
+    // Find products by partial name (case-insensitive), best matches first
     List<ProductResponseDTO> searchProductsByName(String name);
 
+    // Ranked, paginated name search
+    Page<ProductResponseDTO> searchProducts(String name, Pageable pageable);
+
+    // Typeahead: products with a word in the name starting with the prefix
+    List<ProductResponseDTO> suggestProducts(String prefix, int limit);
+
     // Find available products (stock > 0)
     List<ProductResponseDTO> getAvailableProducts();
 
@@ -40,6 +55,10 @@ public interface ProductService {
     // Find products within a price range
     List<ProductResponseDTO> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
 
+    // Price range (either bound optional) combined with a stock condition: in stock, out of stock or null for any;
+    // ordered by price, then id
+    List<ProductResponseDTO> filterProducts(BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock);
+
     // Count all products
     long countAllProducts();
 
@@ -54,4 +73,18 @@ public interface ProductService {
 
     // Get the cheapest product
     Optional<ProductResponseDTO> getCheapestProduct();
+
+    // Streaming variants of the list queries: each product is handed to the consumer as it is read. From the
+    // database nothing is collected in memory regardless of the result size; the products the filter index finds are
+    // loaded and handed over one batch of ids at a time
+
+    void streamAvailableProducts(Consumer<ProductResponseDTO> consumer);
+
+    void streamOutOfStockProducts(Consumer<ProductResponseDTO> consumer);
+
+    void streamProductsCheaperThan(BigDecimal price, Consumer<ProductResponseDTO> consumer);
+
+    void streamProductsMoreExpensiveThan(BigDecimal price, Consumer<ProductResponseDTO> consumer);
+
+    void streamProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Consumer<ProductResponseDTO> consumer);
 }
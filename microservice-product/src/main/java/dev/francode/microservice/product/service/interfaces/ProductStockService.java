@@ -0,0 +1,16 @@
+package dev.francode.microservice.product.service.interfaces;
+
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.dto.StockLineDTO;
+
+import java.util.List;
+
+public interface ProductStockService {
+
+    // All lines are applied in one transaction or none is; lines for the same product are added up.
+    // Returns the affected products after the change, ordered by id.
+
+    List<ProductResponseDTO> reserveStock(List<StockLineDTO> lines);
+
+    List<ProductResponseDTO> releaseStock(List<StockLineDTO> lines);
+}
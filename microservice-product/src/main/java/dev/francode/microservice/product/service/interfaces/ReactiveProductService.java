@@ -0,0 +1,83 @@
+package dev.francode.microservice.product.service.interfaces;
+
+import dev.francode.microservice.product.dto.CursorPageDTO;
+import dev.francode.microservice.product.dto.ProductLookupResponseDTO;
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+// Non-blocking version of the ProductService contract, backing the reactive profile.
+// Errors are signalled through the returned publisher, with the same exception types as ProductService.
+public interface ReactiveProductService {
+
+    // Basic CRUD
+
+    // Empty when the product does not exist
+    Mono<ProductResponseDTO> getProductById(Long id);
+    // Several products at once, in request order; ids without a product are listed as missing
+    Mono<ProductLookupResponseDTO> getProductsByIds(List<Long> ids);
+    Mono<ProductResponseDTO> createProduct(ProductRequestDTO productRequest);
+    // expectedVersions come from If-Match, any of them may be current; null skips the check
+    Mono<ProductResponseDTO> updateProduct(Long id, ProductRequestDTO productRequest, Set<Long> expectedVersions);
+    Mono<Page<ProductResponseDTO>> getAllProducts(Pageable pageable);
+    // Keyset pagination by id or (price, id); cursor is null for the first page
+    Mono<CursorPageDTO<ProductResponseDTO>> scrollProducts(String cursor, String sort, String direction, int size);
+    Mono<Void> deleteProduct(Long id, Set<Long> expectedVersions);
+
+    // Search
+
+    // Find products by partial name (case-insensitive), best matches first
+    Flux<ProductResponseDTO> searchProductsByName(String name);
+
+    // Ranked, paginated name search
+    Mono<Page<ProductResponseDTO>> searchProducts(String name, Pageable pageable);
+
+    // Typeahead: products with a word in the name starting with the prefix
+    Flux<ProductResponseDTO> suggestProducts(String prefix, int limit);
+
+    // List queries: rows are emitted as they are read, at the pace the subscriber requests them,
+    // so these also serve the streaming endpoints
+
+    // Find available products (stock > 0)
+    Flux<ProductResponseDTO> getAvailableProducts();
+
+    // Find out-of-stock products
+    Flux<ProductResponseDTO> getOutOfStockProducts();
+
+    // Find products cheaper than a given price
+    Flux<ProductResponseDTO> getProductsCheaperThan(BigDecimal price);
+
+    // Find products more expensive than a given price
+    Flux<ProductResponseDTO> getProductsMoreExpensiveThan(BigDecimal price);
+
+    // Find products within a price range
+    Flux<ProductResponseDTO> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
+
+    // Price range (either bound optional) combined with a stock condition: in stock, out of stock or null for any;
+    // ordered by price, then id
+    Flux<ProductResponseDTO> filterProducts(BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock);
+
+    // Aggregates
+
+    // Count all products
+    Mono<Long> countAllProducts();
+
+    // Count products with stock > 0
+    Mono<Long> countAvailableProducts();
+
+    // Count products by partial name
+    Mono<Long> countProductsByName(String name);
+
+    // Get the most expensive product
+    Mono<ProductResponseDTO> getMostExpensiveProduct();
+
+    // Get the cheapest product
+    Mono<ProductResponseDTO> getCheapestProduct();
+}
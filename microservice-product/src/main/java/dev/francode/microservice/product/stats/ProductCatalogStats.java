@@ -0,0 +1,218 @@
+package dev.francode.microservice.product.stats;
+
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.event.ProductChangeType;
+import dev.francode.microservice.product.event.ProductChangedEvent;
+import dev.francode.microservice.product.event.ProductTombstones;
+import dev.francode.microservice.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Catalog aggregates kept in memory so dashboards polling counts and price extremes never hit the database:
+// total count, in-stock count and an ordered price index for the cheapest / most expensive product.
+// Updated from committed ProductChangedEvents, dropping those older than the product version already counted, and
+// periodically reconciled against the database to correct drift.
+@Slf4j
+@Component
+public class ProductCatalogStats {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ProductTombstones tombstones;
+
+    private State state = new State();
+    // Changes committed while a load is running, replayed on top of the loaded rows
+    private List<ProductChangedEvent> pending;
+    private volatile boolean ready;
+
+    public ProductCatalogStats(ProductRepository productRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${product.read-models.tombstone-ttl:PT10M}") Duration tombstoneTtl) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.tombstones = new ProductTombstones(tombstoneTtl);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return state.entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long availableCount() {
+        lock.readLock().lock();
+        try {
+            return state.inStock;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Long> mostExpensiveId() {
+        lock.readLock().lock();
+        try {
+            return state.byPrice.isEmpty() ? Optional.empty() : Optional.of(state.byPrice.last().id());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Long> cheapestId() {
+        lock.readLock().lock();
+        try {
+            return state.byPrice.isEmpty() ? Optional.empty() : Optional.of(state.byPrice.first().id());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload(false);
+    }
+
+    @Scheduled(fixedDelayString = "${product.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${product.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        reload(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            apply(state, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reload(boolean reconciling) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                // A load is already running
+                return;
+            }
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State loaded = new State();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (var products = productRepository.streamAll()) {
+                    products.forEach(product -> loaded.put(product.getId(), product.getPrice(), product.getStock(),
+                            product.getVersion()));
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Until a load succeeds the service keeps answering from the database
+            log.error("Product catalog stats could not be loaded", ex);
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(event -> apply(loaded, event));
+            pending = null;
+            if (reconciling && (loaded.entries.size() != state.entries.size() || loaded.inStock != state.inStock)) {
+                log.warn("Product catalog stats drift corrected: total {} -> {}, in stock {} -> {}",
+                        state.entries.size(), loaded.entries.size(), state.inStock, loaded.inStock);
+            }
+            state = loaded;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Events older than what the state holds, and any event after a product's delete, are dropped
+    private void apply(State target, ProductChangedEvent event) {
+        long productId = event.getProductId();
+        if (event.getType() == ProductChangeType.DELETED) {
+            tombstones.add(productId);
+            target.remove(productId);
+        } else if (!tombstones.contains(productId) && target.isOlder(productId, event.getVersion())) {
+            ProductResponseDTO after = event.getAfter();
+            target.put(productId, after.getPrice(), after.getStock(), event.getVersion());
+        }
+    }
+
+    private static final class State {
+
+        private static final Comparator<Entry> PRICE_ORDER = Comparator
+                .comparing(Entry::price)
+                .thenComparingLong(Entry::id);
+
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final TreeSet<Entry> byPrice = new TreeSet<>(PRICE_ORDER);
+        private long inStock;
+
+        // True when the product is not counted or counted at an earlier version
+        boolean isOlder(long id, long version) {
+            Entry entry = entries.get(id);
+            return entry == null || entry.version() < version;
+        }
+
+        void put(long id, BigDecimal price, int stock, long version) {
+            remove(id);
+            Entry entry = new Entry(id, price, stock, version);
+            entries.put(id, entry);
+            byPrice.add(entry);
+            if (stock > 0) {
+                inStock++;
+            }
+        }
+
+        void remove(long id) {
+            Entry entry = entries.remove(id);
+            if (entry != null) {
+                byPrice.remove(entry);
+                if (entry.stock() > 0) {
+                    inStock--;
+                }
+            }
+        }
+    }
+
+    private record Entry(long id, BigDecimal price, int stock, long version) {
+    }
+}
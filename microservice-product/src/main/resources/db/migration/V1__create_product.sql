@@ -0,0 +1,10 @@
+-- Pooled sequence: the increment must match allocationSize on Product.id
+CREATE SEQUENCE product_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE product (
+    id          BIGINT         NOT NULL PRIMARY KEY,
+    name        VARCHAR(255)   NOT NULL,
+    description VARCHAR(1000)  NOT NULL,
+    stock       INTEGER        NOT NULL,
+    price       NUMERIC(10, 2) NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Serves price < / > / BETWEEN, ORDER BY price (min/max and the keyset scroll); id breaks ties
+CREATE INDEX idx_product_price ON product (price, id);
+
+-- Serves stock > 0 / stock = 0
+CREATE INDEX idx_product_stock ON product (stock);
@@ -0,0 +1,4 @@
+-- Optimistic locking and conditional requests: version is bumped by every write, updated_at records when
+ALTER TABLE product ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE product ADD COLUMN updated_at TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
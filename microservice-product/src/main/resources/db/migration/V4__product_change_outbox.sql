@@ -0,0 +1,22 @@
+-- Transactional outbox: one row per product write, inserted in the transaction of the write.
+-- position is the row's place in the change feed. The relay assigns it when it publishes the row, in commit order,
+-- so consumers tailing the feed by position never skip a change that committed late.
+CREATE SEQUENCE product_change_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE product_change (
+    id              BIGINT                      NOT NULL PRIMARY KEY,
+    product_id      BIGINT                      NOT NULL,
+    change_type     VARCHAR(16)                 NOT NULL,
+    -- Product version and JSON after the change; NULL for DELETED
+    product_version BIGINT,
+    payload         VARCHAR(8000),
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    position        BIGINT,
+    published_at    TIMESTAMP(6) WITH TIME ZONE
+);
+
+-- Feed reads (position > ?) and the relay's backlog (position IS NULL)
+CREATE UNIQUE INDEX idx_product_change_position ON product_change (position);
+
+-- Retention cleanup
+CREATE INDEX idx_product_change_published_at ON product_change (published_at);
@@ -0,0 +1,158 @@
+package dev.francode.microservice.product;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.francode.microservice.product.dto.ProductChangeDTO;
+import dev.francode.microservice.product.dto.ProductChangeFeedDTO;
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.event.ProductChangeType;
+import dev.francode.microservice.product.exception.ChangeFeedExpiredException;
+import dev.francode.microservice.product.exception.PreconditionFailedException;
+import dev.francode.microservice.product.outbox.InMemoryProductChangePublisher;
+import dev.francode.microservice.product.outbox.ProductChangeRelay;
+import dev.francode.microservice.product.repository.ProductChangeRepository;
+import dev.francode.microservice.product.service.interfaces.ProductBulkService;
+import dev.francode.microservice.product.service.interfaces.ProductChangeFeedService;
+import dev.francode.microservice.product.service.interfaces.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Writes go through the outbox, the relay publishes them and the feed serves them in commit order.
+// The relay is driven by hand; its schedule is pushed out of the way.
+@SpringBootTest(properties = {
+        "product.outbox.publisher=memory",
+        "product.outbox.relay-interval=PT1H"
+})
+class ProductChangeFeedTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private ProductChangeFeedService changeFeedService;
+
+    @Autowired
+    private ProductChangeRelay relay;
+
+    @Autowired
+    private InMemoryProductChangePublisher publisher;
+
+    @Autowired
+    private ProductChangeRepository changeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long since;
+
+    @BeforeEach
+    void skipEarlierChanges() {
+        relay.relay();
+        Long maxPosition = changeRepository.findMaxPosition();
+        since = maxPosition == null ? 0 : maxPosition;
+        publisher.clear();
+    }
+
+    @Test
+    void writesAppearInTheFeedInOrder() throws Exception {
+        ProductResponseDTO created = productService.createProduct(request("Feed lamp", 5));
+        ProductResponseDTO updated = productService.updateProduct(created.getId(), request("Feed lamp XL", 7), null);
+        productService.deleteProduct(created.getId(), Set.of(updated.getVersion()));
+
+        // Nothing is visible until the relay has run
+        assertTrue(changeFeedService.getChanges(since, 100).getChanges().isEmpty());
+        relay.relay();
+
+        ProductChangeFeedDTO feed = changeFeedService.getChanges(since, 100);
+        List<ProductChangeDTO> changes = feed.getChanges();
+        assertEquals(3, changes.size());
+        assertFalse(feed.isHasMore());
+        assertEquals(since + 3, feed.getNext());
+        assertEquals(List.of(ProductChangeType.CREATED, ProductChangeType.UPDATED, ProductChangeType.DELETED),
+                changes.stream().map(ProductChangeDTO::getType).toList());
+        for (int i = 0; i < changes.size(); i++) {
+            assertEquals(since + i + 1, changes.get(i).getPosition());
+            assertEquals(created.getId(), changes.get(i).getProductId());
+        }
+
+        JsonNode product = objectMapper.readTree(changes.get(1).getProduct());
+        assertEquals("Feed lamp XL", product.get("name").asText());
+        assertEquals(updated.getVersion(), changes.get(1).getVersion());
+        assertEquals(updated.getVersion().longValue(), product.get("version").asLong());
+        assertNull(changes.get(2).getProduct());
+
+        // The publisher got the same changes, and the product JSON is written out as an object
+        assertEquals(3, publisher.getChanges().size());
+        JsonNode written = objectMapper.readTree(objectMapper.writeValueAsString(changes.get(0)));
+        assertEquals("Feed lamp", written.get("product").get("name").asText());
+    }
+
+    @Test
+    void rolledBackWritesLeaveNoChange() {
+        ProductResponseDTO created = productService.createProduct(request("Feed chair", 1));
+        assertThrows(PreconditionFailedException.class,
+                () -> productService.updateProduct(created.getId(), request("Feed chair 2", 1),
+                        Set.of(created.getVersion() + 1)));
+        relay.relay();
+
+        List<ProductChangeDTO> changes = changeFeedService.getChanges(since, 100).getChanges();
+        assertEquals(1, changes.size());
+        assertEquals(ProductChangeType.CREATED, changes.get(0).getType());
+    }
+
+    @Test
+    void bulkWritesArePagedThroughTheFeed() {
+        List<ProductRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            requests.add(request("Feed bulk " + i, i));
+        }
+        productBulkService.createProducts(requests);
+        relay.relay();
+
+        List<ProductChangeDTO> read = new ArrayList<>();
+        long position = since;
+        ProductChangeFeedDTO page;
+        do {
+            page = changeFeedService.getChanges(position, 10);
+            read.addAll(page.getChanges());
+            position = page.getNext();
+        } while (page.isHasMore());
+
+        assertEquals(25, read.size());
+        assertEquals(since + 25, position);
+        // Bulk events are raised after the flush, so they carry the stored version
+        read.forEach(change -> assertEquals(0L, change.getVersion()));
+        assertTrue(changeFeedService.getChanges(position, 10).getChanges().isEmpty());
+    }
+
+    @Test
+    void positionPastTheEndIsRejected() {
+        assertThrows(ChangeFeedExpiredException.class, () -> changeFeedService.getChanges(since + 1000, 10));
+    }
+
+    private ProductRequestDTO request(String name, int stock) {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName(name);
+        request.setDescription(name + " description");
+        request.setStock(stock);
+        request.setPrice(new BigDecimal("9.99"));
+        return request;
+    }
+}
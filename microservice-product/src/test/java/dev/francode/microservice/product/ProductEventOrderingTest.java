@@ -0,0 +1,100 @@
+package dev.francode.microservice.product;
+
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.event.ProductChangedEvent;
+import dev.francode.microservice.product.filter.ProductFilterIndex;
+import dev.francode.microservice.product.search.ProductSearchIndex;
+import dev.francode.microservice.product.stats.ProductCatalogStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Committed changes can reach the in-memory read models out of order. Events are handed to them directly, for ids
+// far above anything in the database, in the order two racing transactions could deliver them.
+@SpringBootTest
+class ProductEventOrderingTest {
+
+    private static final long FIRST_ID = Long.MAX_VALUE - 1_000;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductCatalogStats catalogStats;
+
+    @Autowired
+    private ProductFilterIndex filterIndex;
+
+    @Test
+    void searchIndexKeepsTheNewestVersionAndStaysDeleted() {
+        long id = FIRST_ID;
+        searchIndex.onProductChanged(ProductChangedEvent.created(product(id, "Ordering alpha", 0)));
+        searchIndex.onProductChanged(ProductChangedEvent.updated(product(id, "Ordering alpha", 0),
+                product(id, "Ordering gamma", 2)));
+        // Committed before the rename to gamma, delivered after it
+        searchIndex.onProductChanged(ProductChangedEvent.updated(product(id, "Ordering alpha", 0),
+                product(id, "Ordering beta", 1)));
+        assertEquals(1, searchIndex.count("ordering gamma"));
+        assertEquals(0, searchIndex.count("ordering beta"));
+
+        searchIndex.onProductChanged(ProductChangedEvent.deleted(product(id, "Ordering gamma", 2)));
+        // An update that committed before the delete arrives last
+        searchIndex.onProductChanged(ProductChangedEvent.updated(product(id, "Ordering gamma", 2),
+                product(id, "Ordering delta", 3)));
+        assertEquals(0, searchIndex.count("ordering"));
+    }
+
+    @Test
+    void catalogStatsKeepTheNewestStockAndStayDeleted() {
+        long id = FIRST_ID + 1;
+        long total = catalogStats.count();
+        long available = catalogStats.availableCount();
+        catalogStats.onProductChanged(ProductChangedEvent.created(product(id, 3, 0)));
+        // A reservation emptied the stock (version 2); the earlier one (version 1) is delivered after it
+        catalogStats.onProductChanged(ProductChangedEvent.updated(product(id, 3, 0), product(id, 0, 2)));
+        catalogStats.onProductChanged(ProductChangedEvent.updated(product(id, 3, 0), product(id, 1, 1)));
+        assertEquals(total + 1, catalogStats.count());
+        assertEquals(available, catalogStats.availableCount());
+
+        catalogStats.onProductChanged(ProductChangedEvent.deleted(product(id, 0, 2)));
+        catalogStats.onProductChanged(ProductChangedEvent.updated(product(id, 0, 2), product(id, 4, 3)));
+        assertEquals(total, catalogStats.count());
+        assertEquals(available, catalogStats.availableCount());
+    }
+
+    @Test
+    void filterIndexKeepsTheNewestStockAndStaysDeleted() {
+        long id = FIRST_ID + 2;
+        long cents = 100;
+        // Ordering products cost 1.00
+        filterIndex.onProductChanged(ProductChangedEvent.created(product(id, 3, 0)));
+        filterIndex.onProductChanged(ProductChangedEvent.updated(product(id, 3, 0), product(id, 0, 2)));
+        filterIndex.onProductChanged(ProductChangedEvent.updated(product(id, 3, 0), product(id, 1, 1)));
+        assertEquals(0, countOf(id, filterIndex.find(cents, cents, true)));
+        assertEquals(1, countOf(id, filterIndex.find(cents, cents, false)));
+
+        filterIndex.onProductChanged(ProductChangedEvent.deleted(product(id, 0, 2)));
+        filterIndex.onProductChanged(ProductChangedEvent.updated(product(id, 0, 2), product(id, 4, 3)));
+        assertEquals(0, countOf(id, filterIndex.find(cents, cents, null)));
+    }
+
+    private static long countOf(long id, long[] ids) {
+        return Arrays.stream(ids).filter(found -> found == id).count();
+    }
+
+    private static ProductResponseDTO product(long id, String name, long version) {
+        return new ProductResponseDTO(id, name, "Ordering test product", 1, new BigDecimal("1.00"), version,
+                Instant.now());
+    }
+
+    private static ProductResponseDTO product(long id, int stock, long version) {
+        return new ProductResponseDTO(id, "Ordering stock", "Ordering test product", stock, new BigDecimal("1.00"),
+                version, Instant.now());
+    }
+}
@@ -0,0 +1,112 @@
+package dev.francode.microservice.product;
+
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.filter.ProductFilterIndex;
+import dev.francode.microservice.product.repository.ProductRepository;
+import dev.francode.microservice.product.service.interfaces.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The filter endpoints answered from the in-memory columns return what the database queries return, through
+// creates, price and stock updates and deletes, with bounds that fall between two cents.
+@SpringBootTest
+class ProductFilterIndexTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductFilterIndex filterIndex;
+
+    @Test
+    void filtersMatchTheDatabaseThroughWrites() {
+        assertTrue(filterIndex.isReady());
+        List<ProductResponseDTO> created = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            created.add(productService.createProduct(request("Filter " + i, i % 4 == 0 ? 0 : i, price(i))));
+        }
+        assertMatchesDatabase();
+
+        // Prices move across each other, stock runs out and comes back, some products go away
+        for (int i = 0; i < created.size(); i += 3) {
+            ProductResponseDTO product = created.get(i);
+            productService.updateProduct(product.getId(), request(product.getName(), i % 2 == 0 ? 5 : 0,
+                    price(39 - i)), null);
+        }
+        for (int i = 1; i < created.size(); i += 5) {
+            productService.deleteProduct(created.get(i).getId(), null);
+        }
+        assertMatchesDatabase();
+    }
+
+    @Test
+    void combinedFilterIsOrderedByPriceAndHonorsOpenBounds() {
+        ProductResponseDTO cheap = productService.createProduct(request("Combined cheap", 3, new BigDecimal("4321.50")));
+        ProductResponseDTO empty = productService.createProduct(request("Combined empty", 0, new BigDecimal("4321.50")));
+        ProductResponseDTO dear = productService.createProduct(request("Combined dear", 3, new BigDecimal("4321.49")));
+
+        List<Long> inStock = ids(productService.filterProducts(new BigDecimal("4321.485"), new BigDecimal("4321.5"),
+                true));
+        assertEquals(List.of(dear.getId(), cheap.getId()), inStock);
+        List<Long> outOfStock = ids(productService.filterProducts(new BigDecimal("4321.49"), new BigDecimal("4321.50"),
+                false));
+        assertEquals(List.of(empty.getId()), outOfStock);
+
+        List<ProductResponseDTO> all = productService.filterProducts(null, null, null);
+        assertEquals(productRepository.count(), all.size());
+        Comparator<ProductResponseDTO> priceOrder = Comparator.comparing(ProductResponseDTO::getPrice)
+                .thenComparing(ProductResponseDTO::getId);
+        assertEquals(all.stream().sorted(priceOrder).toList(), all);
+    }
+
+    private void assertMatchesDatabase() {
+        for (String bound : List.of("0", "5.5", "10.005", "12.34", "12.345", "20", "1000")) {
+            BigDecimal price = new BigDecimal(bound);
+            assertSameProducts(productRepository.findByPriceLessThan(price), productService.getProductsCheaperThan(price));
+            assertSameProducts(productRepository.findByPriceGreaterThan(price),
+                    productService.getProductsMoreExpensiveThan(price));
+            BigDecimal max = price.add(new BigDecimal("7.777"));
+            assertSameProducts(productRepository.findByPriceBetween(price, max),
+                    productService.getProductsByPriceRange(price, max));
+            assertSameProducts(productRepository.findByPriceBetweenAndStockBetween(price, max, 1, Integer.MAX_VALUE),
+                    productService.filterProducts(price, max, true));
+        }
+        assertSameProducts(productRepository.findByStockGreaterThan(0), productService.getAvailableProducts());
+        assertSameProducts(productRepository.findByStockEquals(0), productService.getOutOfStockProducts());
+    }
+
+    private static void assertSameProducts(List<ProductResponseDTO> expected, List<ProductResponseDTO> actual) {
+        assertEquals(ids(expected).stream().sorted().toList(), ids(actual).stream().sorted().toList());
+    }
+
+    private static List<Long> ids(List<ProductResponseDTO> products) {
+        return products.stream().map(ProductResponseDTO::getId).toList();
+    }
+
+    // 0.00 to 15.38 in steps of 0.53 and a cent apart for i and i + 30; the updates make products share prices
+    private static BigDecimal price(int i) {
+        return BigDecimal.valueOf((i % 30) * 53L + (i / 30), 2);
+    }
+
+    private static ProductRequestDTO request(String name, int stock, BigDecimal price) {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName(name);
+        request.setDescription("Filter index test product");
+        request.setStock(stock);
+        request.setPrice(price);
+        return request;
+    }
+}
@@ -0,0 +1,186 @@
+package dev.francode.microservice.product;
+
+import dev.francode.microservice.product.cache.ProductCache;
+import dev.francode.microservice.product.dto.ProductLookupResponseDTO;
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.exception.BulkLimitExceededException;
+import dev.francode.microservice.product.exception.InvalidIdException;
+import dev.francode.microservice.product.repository.ProductRepository;
+import dev.francode.microservice.product.service.impl.ProductServiceImpl;
+import dev.francode.microservice.product.service.interfaces.ProductService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Multi-get keeps request order and reports missing ids; concurrent by-id misses share queries; a slow read never
+// caches an older row than a write that committed before it.
+// The window is widened so every lookup of the concurrent burst lands in it.
+@SpringBootTest(properties = {
+        "product.lookup.batch-window=PT0.2S",
+        "product.lookup.max-batch-size=50",
+        "product.lookup.max-ids=100"
+})
+class ProductLookupTest {
+
+    private static final int LOOKUPS = 20;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void lookupKeepsRequestOrderAndReportsMissingIds() {
+        long first = createProduct("Lookup first").getId();
+        long second = createProduct("Lookup second").getId();
+        long third = createProduct("Lookup third").getId();
+        long unknown = third + 1_000_000;
+        // One of them is cached, the others come from the query
+        productService.getProductById(second);
+
+        ProductLookupResponseDTO lookup = productService.getProductsByIds(List.of(third, unknown, first, second, third));
+
+        assertEquals(List.of(third, first, second),
+                lookup.getProducts().stream().map(ProductResponseDTO::getId).toList());
+        assertEquals(List.of(unknown), lookup.getMissing());
+        assertEquals("Lookup third", lookup.getProducts().get(0).getName());
+    }
+
+    @Test
+    void lookupRejectsInvalidAndTooManyIds() {
+        assertThrows(InvalidIdException.class, () -> productService.getProductsByIds(List.of()));
+        assertThrows(InvalidIdException.class, () -> productService.getProductsByIds(List.of(1L, 0L)));
+        assertThrows(BulkLimitExceededException.class,
+                () -> productService.getProductsByIds(Collections.nCopies(101, 1L)));
+    }
+
+    @Test
+    void concurrentLookupsByIdShareQueries() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < LOOKUPS; i++) {
+            ids.add(createProduct("Lookup burst " + i).getId());
+        }
+        ids.add(ids.get(LOOKUPS - 1) + 1_000_000);
+        cacheManager.getCache(ProductServiceImpl.PRODUCT_CACHE).clear();
+        DistributionSummary batchSizes = meterRegistry.get("product.lookup.batch.size").summary();
+        long queriesBefore = batchSizes.count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(ids.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Optional<ProductResponseDTO>>> results = new ArrayList<>();
+            for (Long id : ids) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return productService.getProductById(id);
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < LOOKUPS; i++) {
+                assertEquals(ids.get(i), results.get(i).get().orElseThrow().getId());
+            }
+            assertFalse(results.get(LOOKUPS).get().isPresent());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long queries = batchSizes.count() - queriesBefore;
+        assertTrue(queries < ids.size() / 2, "Expected the lookups to be coalesced, got " + queries + " queries");
+    }
+
+    @Test
+    void uncontendedLookupDoesNotWaitForTheWindow() {
+        long id = createProduct("Lookup alone").getId();
+        cacheManager.getCache(ProductServiceImpl.PRODUCT_CACHE).evict(id);
+
+        long start = System.nanoTime();
+        assertTrue(productService.getProductById(id).isPresent());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        assertTrue(elapsed.compareTo(Duration.ofMillis(150)) < 0, "lookup took " + elapsed);
+    }
+
+    // A read that loaded the row before an update committed caches it only afterwards: the update's version stays
+    @Test
+    void slowReadDoesNotOverwriteANewerUpdate() throws Exception {
+        ProductResponseDTO created = createProduct("Lookup slow read");
+        long id = created.getId();
+        cacheManager.getCache(ProductServiceImpl.PRODUCT_CACHE).evict(id);
+
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slowRead = executor.submit(() -> {
+                ProductResponseDTO read = productRepository.findViewById(id).orElseThrow();
+                loaded.countDown();
+                updated.await();
+                productCache.putLoaded(read);
+                return null;
+            });
+            loaded.await();
+            ProductResponseDTO renamed = productService.updateProduct(id, request("Lookup slow read 2"), null);
+            updated.countDown();
+            slowRead.get();
+
+            assertEquals(renamed.getVersion(), productService.getProductById(id).orElseThrow().getVersion());
+            assertEquals("Lookup slow read 2", productService.getProductById(id).orElseThrow().getName());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void slowReadDoesNotBringBackADeletedProduct() {
+        long id = createProduct("Lookup slow delete").getId();
+        cacheManager.getCache(ProductServiceImpl.PRODUCT_CACHE).evict(id);
+
+        ProductResponseDTO read = productRepository.findViewById(id).orElseThrow();
+        productService.deleteProduct(id, null);
+        productCache.putLoaded(read);
+
+        assertTrue(productService.getProductById(id).isEmpty());
+    }
+
+    private ProductResponseDTO createProduct(String name) {
+        return productService.createProduct(request(name));
+    }
+
+    private static ProductRequestDTO request(String name) {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName(name);
+        request.setDescription(name + " description");
+        request.setStock(1);
+        request.setPrice(new BigDecimal("4.50"));
+        return request;
+    }
+}
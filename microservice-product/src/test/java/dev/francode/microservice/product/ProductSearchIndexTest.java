@@ -0,0 +1,82 @@
+package dev.francode.microservice.product;
+
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.repository.ProductRepository;
+import dev.francode.microservice.product.search.ProductSearchIndex;
+import dev.francode.microservice.product.service.interfaces.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Contains queries of every length, including the 1- and 2-char ones answered from bigrams, find what the database
+// finds; pages cut from the bounded ranking line up with the full ranking.
+@SpringBootTest
+class ProductSearchIndexTest {
+
+    private static final List<String> NAMES = List.of("Qix lamp", "Lamp qix", "Aqua lamp", "Zqx", "Squeeze bottle",
+            "Quartz clock", "q", "Plain mug", "Mug of qix", "Iraq map");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Test
+    void shortAndLongQueriesMatchTheDatabase() {
+        assertTrue(searchIndex.isReady());
+        List<ProductResponseDTO> created = new ArrayList<>();
+        for (String name : NAMES) {
+            created.add(productService.createProduct(request(name)));
+        }
+        productService.updateProduct(created.get(7).getId(), request("Plain quill"), null);
+        productService.deleteProduct(created.get(9).getId(), null);
+
+        for (String query : List.of("q", "Q", "x", "qi", "aq", "x ", "qix", "lamp", "e", "zz")) {
+            Set<Long> expected = new HashSet<>();
+            productRepository.findByNameContainingIgnoreCase(query).forEach(product -> expected.add(product.getId()));
+            assertEquals(expected, new HashSet<>(searchIndex.search(query, 0, Integer.MAX_VALUE).getProductIds()),
+                    query);
+            assertEquals(expected.size(), searchIndex.count(query), query);
+        }
+    }
+
+    @Test
+    void pagesFollowTheFullRanking() {
+        for (int i = 0; i < 30; i++) {
+            productService.createProduct(request("Paged " + "o".repeat(i % 7) + " item " + i));
+        }
+        List<Long> full = searchIndex.search("o", 0, Integer.MAX_VALUE).getProductIds();
+        List<Long> paged = new ArrayList<>();
+        for (int offset = 0; offset < full.size(); offset += 7) {
+            var page = searchIndex.search("o", offset, 7);
+            assertEquals(full.size(), page.getTotal());
+            paged.addAll(page.getProductIds());
+        }
+        assertEquals(full, paged);
+        assertEquals(full.subList(0, 3), searchIndex.search("o", 0, 3).getProductIds());
+        assertTrue(searchIndex.search("o", full.size() + 5, 10).getProductIds().isEmpty());
+    }
+
+    private static ProductRequestDTO request(String name) {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName(name);
+        request.setDescription("Search index test product");
+        request.setStock(1);
+        request.setPrice(new BigDecimal("2.00"));
+        return request;
+    }
+}
@@ -0,0 +1,164 @@
+package dev.francode.microservice.product;
+
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+import dev.francode.microservice.product.dto.ProductResponseDTO;
+import dev.francode.microservice.product.dto.StockLineDTO;
+import dev.francode.microservice.product.exception.InsufficientStockException;
+import dev.francode.microservice.product.exception.InvalidStockQuantityException;
+import dev.francode.microservice.product.service.interfaces.ProductService;
+import dev.francode.microservice.product.service.interfaces.ProductStockService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Many threads hammering a few hot SKUs: no lost updates, no overselling, no deadlocks between overlapping batches
+@SpringBootTest
+class ProductStockConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductStockService productStockService;
+
+    @Test
+    void hotProductIsNeverOversold() throws Exception {
+        long id = createProduct(500).getId();
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(2000, attempt -> {
+            try {
+                productStockService.reserveStock(List.of(new StockLineDTO(id, 1)));
+                reserved.incrementAndGet();
+            } catch (InsufficientStockException ex) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(500, reserved.get());
+        assertEquals(1500, rejected.get());
+        assertEquals(0, stockOf(id));
+    }
+
+    @Test
+    void reserveAndReleaseDoNotLoseUpdates() throws Exception {
+        long id = createProduct(100).getId();
+
+        runConcurrently(4000, attempt -> {
+            List<StockLineDTO> lines = List.of(new StockLineDTO(id, 1 + attempt % 3));
+            productStockService.reserveStock(lines);
+            productStockService.releaseStock(lines);
+        });
+
+        assertEquals(100, stockOf(id));
+    }
+
+    @Test
+    void overlappingBatchesAreAllOrNothing() throws Exception {
+        long first = createProduct(3000).getId();
+        long second = createProduct(1000).getId();
+        AtomicInteger reserved = new AtomicInteger();
+
+        // Lines arrive in opposite orders; the service locks rows by id so these cannot deadlock
+        runConcurrently(3000, attempt -> {
+            List<StockLineDTO> lines = attempt % 2 == 0
+                    ? List.of(new StockLineDTO(first, 1), new StockLineDTO(second, 1))
+                    : List.of(new StockLineDTO(second, 1), new StockLineDTO(first, 1));
+            try {
+                productStockService.reserveStock(lines);
+                reserved.incrementAndGet();
+            } catch (InsufficientStockException ex) {
+                // second product sold out; the line for the first one must have been rolled back
+            }
+        });
+
+        assertEquals(1000, reserved.get());
+        assertEquals(0, stockOf(second));
+        assertEquals(2000, stockOf(first));
+    }
+
+    @Test
+    void duplicateLinesAreAddedUp() {
+        long id = createProduct(5).getId();
+
+        assertThrows(InsufficientStockException.class, () -> productStockService.reserveStock(
+                List.of(new StockLineDTO(id, 3), new StockLineDTO(id, 3))));
+        assertEquals(5, stockOf(id));
+
+        List<ProductResponseDTO> changed = productStockService.reserveStock(
+                List.of(new StockLineDTO(id, 2), new StockLineDTO(id, 3)));
+        assertEquals(0, changed.get(0).getStock());
+    }
+
+    @Test
+    void releaseCannotOverflowTheStock() {
+        long id = createProduct(Integer.MAX_VALUE - 1).getId();
+
+        assertThrows(InvalidStockQuantityException.class, () -> productStockService.releaseStock(
+                List.of(new StockLineDTO(id, 2))));
+        assertThrows(InvalidStockQuantityException.class, () -> productStockService.releaseStock(
+                List.of(new StockLineDTO(id, Integer.MAX_VALUE), new StockLineDTO(id, 1))));
+        assertEquals(Integer.MAX_VALUE - 1, stockOf(id));
+
+        productStockService.releaseStock(List.of(new StockLineDTO(id, 1)));
+        assertEquals(Integer.MAX_VALUE, stockOf(id));
+    }
+
+    private ProductResponseDTO createProduct(int stock) {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName("Hot product");
+        request.setDescription("Stock contention test");
+        request.setStock(stock);
+        request.setPrice(new BigDecimal("9.99"));
+        return productService.createProduct(request);
+    }
+
+    private int stockOf(long id) {
+        return productService.getProductById(id).orElseThrow().getStock();
+    }
+
+    // Runs the given number of attempts on a fixed pool, all released at once, and rethrows any unexpected failure
+    private void runConcurrently(int attempts, Attempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>(attempts);
+            for (int i = 0; i < attempts; i++) {
+                int number = i;
+                Callable<Void> task = () -> {
+                    start.await();
+                    attempt.run(number);
+                    return null;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        void run(int number) throws Exception;
+    }
+}
@@ -0,0 +1,174 @@
+package dev.francode.microservice.product;
+
+import dev.francode.microservice.product.dto.ProductRequestDTO;
+import dev.francode.microservice.product.service.interfaces.ProductBulkService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compares throughput and p99 latency of the platform-thread, virtual-thread and reactive (WebFlux + R2DBC)
+// modes under a burst of concurrent clients. Excluded from the default build; run with: mvn test -Pload-test
+// Tunable with -Dload.clients, -Dload.seconds and -Dload.products.
+@Tag("load")
+class ThreadModeLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 15);
+    private static final int WARMUP_SECONDS = 3;
+    private static final int PRODUCTS = Integer.getInteger("load.products", 5000);
+    // Same Tomcat cap for the servlet runs; only the platform-thread mode is bound by it
+    private static final int TOMCAT_THREADS = 50;
+
+    @Test
+    void compareThreadModes() throws Exception {
+        List<Result> results = List.of(run("platform"), run("virtual"), run("reactive"));
+
+        System.out.printf("%n%-10s %10s %12s %10s %10s %8s%n", "mode", "requests", "req/s", "p50 ms", "p99 ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %10d %12.1f %10.2f %10.2f %8d%n", result.mode(), result.requests(),
+                    result.throughput(), result.p50Millis(), result.p99Millis(), result.errors());
+        }
+
+        for (Result result : results) {
+            assertTrue(result.requests() > 0, result.mode());
+            assertEquals(0, result.errors(), result.mode());
+        }
+    }
+
+    private Result run(String mode) throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--eureka.client.enabled=false",
+                "--spring.cloud.config.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--server.tomcat.max-connections=" + (CLIENTS * 2),
+                "--server.tomcat.accept-count=" + CLIENTS));
+        if (mode.equals("virtual")) {
+            args.add("--spring.profiles.active=virtual-threads");
+        } else if (mode.equals("reactive")) {
+            // Netty instead of Tomcat; the R2DBC driver opens the database the JDBC side seeds
+            args.add("--spring.profiles.active=reactive");
+            args.add("--spring.r2dbc.url=r2dbc:h2:mem:///load-" + mode + ";DB_CLOSE_DELAY=-1");
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MicroserviceProductApplication.class)
+                .run(args.toArray(String[]::new))) {
+            seed(context.getBean(ProductBulkService.class));
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/products";
+
+            drive(baseUrl, WARMUP_SECONDS);
+            long[][] latencies = drive(baseUrl, SECONDS);
+            return Result.of(mode, latencies, SECONDS);
+        }
+    }
+
+    private void seed(ProductBulkService bulkService) {
+        List<ProductRequestDTO> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            ProductRequestDTO product = new ProductRequestDTO();
+            product.setName("Load product " + i);
+            product.setDescription("Product used by the thread mode load test");
+            product.setStock(i % 3);
+            product.setPrice(BigDecimal.valueOf(100 + i % 900, 0));
+            products.add(product);
+        }
+        bulkService.createProducts(products);
+    }
+
+    // Each client loops over a mix of cached lookups, pages and range queries until the deadline.
+    // Returns one row of latencies (nanos) per client; a negative entry marks a failed request.
+    private long[][] drive(String baseUrl, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(clients)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+            List<Future<long[]>> futures = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + nextPath(random)))
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long start = System.nanoTime();
+                        long elapsed;
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            elapsed = System.nanoTime() - start;
+                            if (response.statusCode() != 200) {
+                                elapsed = -1;
+                            }
+                        } catch (Exception ex) {
+                            elapsed = -1;
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = elapsed;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+            long[][] latencies = new long[CLIENTS][];
+            for (int c = 0; c < CLIENTS; c++) {
+                latencies[c] = futures.get(c).get();
+            }
+            return latencies;
+        }
+    }
+
+    private static String nextPath(ThreadLocalRandom random) {
+        int pick = random.nextInt(10);
+        if (pick < 5) {
+            return "/" + (1 + random.nextInt(PRODUCTS));
+        }
+        if (pick < 8) {
+            return "?page=" + random.nextInt(PRODUCTS / 20) + "&size=20";
+        }
+        int min = 100 + random.nextInt(890);
+        return "/price/between?minPrice=" + min + "&maxPrice=" + (min + 2);
+    }
+
+    private record Result(String mode, long requests, long errors, double throughput, double p50Millis, double p99Millis) {
+
+        static Result of(String mode, long[][] latencies, int seconds) {
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).toArray();
+            long[] succeeded = Arrays.stream(all).filter(latency -> latency >= 0).sorted().toArray();
+            return new Result(mode, all.length, all.length - succeeded.length, (double) succeeded.length / seconds,
+                    percentile(succeeded, 0.50), percentile(succeeded, 0.99));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package dev.francode.serviceregistry.snapshot;
+
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.resources.ServerCodecs;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+// registry.snapshot.enabled=false starts every run with an empty registry, as plain Eureka does
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "registry.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class RegistrySnapshotConfiguration {
+
+    // The codec the server answers /eureka/apps with, so a snapshot holds exactly what clients are sent
+    @Bean
+    public RegistrySnapshotter registrySnapshotter(
+            PeerAwareInstanceRegistry registry,
+            ServerCodecs serverCodecs,
+            @Value("${registry.snapshot.file:snapshots/service-registry.json.gz}") Path file) {
+        return new RegistrySnapshotter(registry, serverCodecs.getFullJsonCodec(), file);
+    }
+}
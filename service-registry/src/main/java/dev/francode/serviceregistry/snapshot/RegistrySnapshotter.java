@@ -0,0 +1,107 @@
+package dev.francode.serviceregistry.snapshot;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import com.netflix.discovery.converters.wrappers.CodecWrapper;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaRegistryAvailableEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Keeps the lease table across restarts: it is written to a gzipped JSON file every snapshot interval and, once
+// the Eureka context is up, registered again from that file. Instances that are still running renew against the
+// restored leases instead of getting a 404 and re-registering, and the registry can answer fetches right away.
+// A restored instance whose lease had lapsed is left out; one that died since the snapshot is evicted like any
+// other once its lease runs out.
+public class RegistrySnapshotter implements ApplicationListener<EurekaRegistryAvailableEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrySnapshotter.class);
+
+    private final PeerAwareInstanceRegistry registry;
+    private final CodecWrapper codec;
+    private final Path file;
+    // Nothing is written before the restore, which would replace the snapshot with an empty registry
+    private volatile boolean restored;
+
+    public RegistrySnapshotter(PeerAwareInstanceRegistry registry, CodecWrapper codec, Path file) {
+        this.registry = registry;
+        this.codec = codec;
+        this.file = file;
+    }
+
+    @Override
+    public void onApplicationEvent(EurekaRegistryAvailableEvent event) {
+        if (restored) {
+            return;
+        }
+        try {
+            restore();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Cannot restore the registry from {}, starting empty", file, ex);
+        }
+        restored = true;
+    }
+
+    @Scheduled(fixedDelayString = "${registry.snapshot.interval:PT30S}",
+            initialDelayString = "${registry.snapshot.interval:PT30S}")
+    public void write() {
+        if (!restored) {
+            return;
+        }
+        Applications applications = registry.getApplicationsFromLocalRegionOnly();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+                codec.encode(applications, out);
+            }
+            // Readers see the previous snapshot or this one, never a partial file
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Cannot write the registry snapshot to {}", file, ex);
+        }
+    }
+
+    private void restore() throws IOException {
+        Applications applications;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            applications = codec.decode(in, Applications.class);
+        } catch (NoSuchFileException ex) {
+            log.info("No registry snapshot at {}, starting empty", file);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int restoredInstances = 0;
+        int lapsed = 0;
+        for (Application application : applications.getRegisteredApplications()) {
+            for (InstanceInfo instance : application.getInstances()) {
+                LeaseInfo lease = instance.getLeaseInfo();
+                int duration = lease == null ? LeaseInfo.DEFAULT_LEASE_DURATION : lease.getDurationInSecs();
+                // Same test as Eureka's eviction: the last renewal plus one lease duration
+                if (lease != null && lease.getRenewalTimestamp() + duration * 1000L < now) {
+                    lapsed++;
+                    continue;
+                }
+                // As a replication: peers have their own copy, this is not news to them
+                registry.register(instance, duration, true);
+                restoredInstances++;
+            }
+        }
+        log.info("Restored {} instances from the registry snapshot at {} ({} with a lapsed lease left out)",
+                restoredInstances, file, lapsed);
+    }
+}